@@ -0,0 +1,311 @@
+package parser;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Class: BatchSentenceGenerator
+ * Description: Generates sentences in bulk from a shared read-only
+ * MarkovModel across worker threads. A Bloom filter seeded from
+ * generated_sentences drops duplicates in memory, and the survivors are
+ * written with batched INSERT IGNORE statements on the calling thread.
+ */
+public class BatchSentenceGenerator {
+    public static final String ALGORITHM_NAME = "batch_random";
+    // generated_sentences is UNIQUE on the first 512 characters of sentence_text
+    private static final int UNIQUE_PREFIX_LENGTH = 512;
+    private static final Sentence END_OF_STREAM = new Sentence("", 0);
+
+    private final MarkovModel model;
+    private final Options options;
+
+    public BatchSentenceGenerator(MarkovModel model, Options options) {
+        if (!model.canGenerate()) {
+            throw new IllegalArgumentException("Model has no sentence start words");
+        }
+        this.model = model;
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        try {
+            options.count = Long.parseLong(args[0]);
+            if (options.count < 1) {
+                throw new IllegalArgumentException("count must be positive: " + options.count);
+            }
+            for (int i = 1; i < args.length; i += 2) {
+                options.applyFlag(args[i], args[i + 1]);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: java parser.BatchSentenceGenerator <count> " + Options.USAGE);
+            System.exit(1);
+        }
+
+        Properties driverProperties = new Properties();
+        driverProperties.setProperty("rewriteBatchedStatements", "true");
+        try (Connection connection = Database.connect(driverProperties)) {
+            MarkovModel model = MarkovModel.load(connection);
+            Report report = new BatchSentenceGenerator(model, options).run(connection);
+            System.out.println(report);
+        } catch (SQLException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Failed to generate sentences: " + e.getMessage()
+                + (e.getCause() == null ? "" : " (" + e.getCause() + ")"));
+            System.exit(1);
+        }
+    }
+
+    // Seeds the filter from generated_sentences, generates, and inserts the survivors
+    public Report run(Connection connection) throws SQLException {
+        long existing = countSentences(connection);
+        BloomFilter filter = BloomFilter.create(existing + options.count, options.falsePositiveRate);
+        seedFilter(connection, filter);
+
+        String sql = "INSERT IGNORE INTO generated_sentences (sentence_text, algorithm_name, starting_word_id)"
+            + " VALUES (?, ?, ?)";
+        Report report;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            int[] pending = {0};
+            report = generate(filter, sentence -> {
+                insert.setString(1, sentence.text);
+                insert.setString(2, ALGORITHM_NAME);
+                if (sentence.startingWordId > 0) {
+                    insert.setInt(3, sentence.startingWordId);
+                } else {
+                    insert.setNull(3, Types.INTEGER);
+                }
+                insert.addBatch();
+                if (++pending[0] == options.batchSize) {
+                    insert.executeBatch();
+                    pending[0] = 0;
+                }
+            });
+            if (pending[0] > 0) {
+                insert.executeBatch();
+            }
+        }
+
+        // Rewritten batches do not report per-row counts, so measure the table instead
+        report.inserted = countSentences(connection) - existing;
+        return report;
+    }
+
+    // Generates options.count sentences; sink is only ever called on the calling thread
+    public Report generate(BloomFilter filter, SentenceSink sink) throws SQLException {
+        Report report = new Report();
+        AtomicLong duplicates = new AtomicLong();
+        BlockingQueue<Sentence> queue = new ArrayBlockingQueue<>(Math.max(1024, options.batchSize * 4));
+        AtomicInteger runningWorkers = new AtomicInteger(options.threads);
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        List<Future<?>> workers = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int w = 0; w < options.threads; w++) {
+            long quota = options.count / options.threads + (w < options.count % options.threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(options.seed + w * 0x9E3779B97F4A7C15L);
+            workers.add(executor.submit(() -> {
+                try {
+                    produce(quota, random, filter, queue, duplicates);
+                } finally {
+                    if (runningWorkers.decrementAndGet() == 0) {
+                        signalEndOfStream(queue, cancelled);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            Sentence sentence;
+            while ((sentence = queue.take()) != END_OF_STREAM) {
+                sink.accept(sentence);
+                report.accepted++;
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while generating sentences", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sentence worker failed", e.getCause());
+        } finally {
+            // Set before interrupting so a worker in its finally block never waits on a dead consumer
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+
+        report.elapsedNanos = System.nanoTime() - start;
+        report.generated = options.count;
+        report.filteredDuplicates = duplicates.get();
+        report.inserted = report.accepted;
+        return report;
+    }
+
+    // Interrupted (and stops) when the consumer fails and the executor is shut down
+    private void produce(long quota, SplittableRandom random, BloomFilter filter,
+                         BlockingQueue<Sentence> queue, AtomicLong duplicates) throws InterruptedException {
+        StringBuilder text = new StringBuilder(128);
+        for (long i = 0; i < quota; i++) {
+            text.setLength(0);
+            int start = model.generate(random, options.maxWords, text);
+            String sentence = text.toString();
+            if (filter.put(dedupeKey(sentence))) {
+                queue.put(new Sentence(sentence, model.getWordId(start)));
+            } else {
+                duplicates.incrementAndGet();
+            }
+        }
+    }
+
+    // Mirrors the table's unique key: a 512-char prefix under a case-insensitive collation
+    static String dedupeKey(String sentence) {
+        String prefix = sentence.length() > UNIQUE_PREFIX_LENGTH
+            ? sentence.substring(0, UNIQUE_PREFIX_LENGTH)
+            : sentence;
+        return prefix.toLowerCase(Locale.ROOT);
+    }
+
+    private static long countSentences(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM generated_sentences")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void seedFilter(Connection connection, BloomFilter filter) throws SQLException {
+        try (Statement statement = Database.streamingStatement(connection)) {
+            try (ResultSet rs = statement.executeQuery("SELECT sentence_text FROM generated_sentences")) {
+                while (rs.next()) {
+                    filter.put(dedupeKey(rs.getString(1)));
+                }
+            }
+        }
+    }
+
+    // Never blocks indefinitely: gives up once the consumer has stopped, whatever the interrupt state
+    private static void signalEndOfStream(BlockingQueue<Sentence> queue, AtomicBoolean cancelled) {
+        while (!cancelled.get()) {
+            try {
+                if (queue.offer(END_OF_STREAM, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public interface SentenceSink {
+        void accept(Sentence sentence) throws SQLException;
+    }
+
+    public static class Sentence {
+        public final String text;
+        // Database id of the first word, or 0 when unknown
+        public final int startingWordId;
+
+        public Sentence(String text, int startingWordId) {
+            this.text = text;
+            this.startingWordId = startingWordId;
+        }
+    }
+
+    public static class Options {
+        public static final String USAGE = "[--threads <n>] [--batch-size <n>] [--max-words <n>]"
+            + " [--seed <n>] [--false-positive-rate <p>]";
+
+        public long count = 1_000_000L;
+        public int threads = Runtime.getRuntime().availableProcessors();
+        public int batchSize = 1_000;
+        public int maxWords = 30;
+        public long seed = 42L;
+        // Share of genuinely new sentences the Bloom filter may wrongly treat as duplicates
+        public double falsePositiveRate = 0.001;
+
+        // Throws IllegalArgumentException (NumberFormatException included) for unknown flags or bad values
+        public void applyFlag(String flag, String value) {
+            switch (flag) {
+                case "--threads":
+                    threads = parsePositive(flag, value);
+                    break;
+                case "--batch-size":
+                    batchSize = parsePositive(flag, value);
+                    break;
+                case "--max-words":
+                    maxWords = parsePositive(flag, value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--false-positive-rate":
+                    falsePositiveRate = Double.parseDouble(value);
+                    if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+                        throw new IllegalArgumentException(flag + " must be between 0 and 1: " + value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown flag: " + flag);
+            }
+        }
+
+        private static int parsePositive(String flag, String value) {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException(flag + " must be positive: " + value);
+            }
+            return parsed;
+        }
+    }
+
+    public static class Report {
+        public long generated;
+        // Dropped in memory by the Bloom filter
+        public long filteredDuplicates;
+        // Passed the filter and handed to the sink
+        public long accepted;
+        // Rows actually written; accepted - inserted were rejected by the unique key
+        public long inserted;
+        public long elapsedNanos;
+
+        public double sentencesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : generated / (elapsedNanos / 1e9);
+        }
+
+        public double duplicateRate() {
+            return generated == 0 ? 0.0 : (double) (generated - inserted) / generated;
+        }
+
+        @Override
+        public String toString() {
+            return "Batch generation summary:\n"
+                + "Generated: " + generated + "\n"
+                + "Filtered as duplicates: " + filteredDuplicates + "\n"
+                + "Inserted: " + inserted + " (" + (accepted - inserted) + " rejected by the database)\n"
+                + String.format("Sentences/sec: %.0f%n", sentencesPerSecond())
+                + String.format("Duplicate rate: %.2f%%", duplicateRate() * 100);
+        }
+    }
+}
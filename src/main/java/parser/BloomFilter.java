@@ -0,0 +1,91 @@
+package parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+/*
+ * Class: BloomFilter
+ * Description: Thread-safe Bloom filter over strings. Answers "definitely
+ * new" or "probably seen", so callers can skip most duplicates in memory
+ * before they ever reach the database. False positives drop a small,
+ * configurable share of genuinely new values; there are no false negatives.
+ */
+public class BloomFilter {
+    // Equal values hash to the same stripe, so concurrent puts of one value cannot both report "new"
+    private static final int LOCK_STRIPES = 64;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        long words = (bitCount + 63) / 64;
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bitCount + " bits");
+        }
+        this.bits = new AtomicLongArray((int) words);
+        this.bitCount = words * 64;
+        this.hashCount = hashCount;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Sizes the filter for the expected number of values and target false-positive rate
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(Math.max(64, m), k);
+    }
+
+    public boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Adds the value; returns true if it was definitely not present before
+    public boolean put(String value) {
+        long[] hash = hash(value);
+        boolean changed = false;
+        synchronized (locks[Math.floorMod(hash[0], LOCK_STRIPES)]) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = bitIndex(hash, i);
+                long mask = 1L << bit;
+                long previous = bits.getAndAccumulate((int) (bit >>> 6), mask, (current, m) -> current | m);
+                if ((previous & mask) == 0) {
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): the i-th index is h1 + i * h2
+    private long bitIndex(long[] hash, int i) {
+        return Math.floorMod(hash[0] + i * hash[1], bitCount);
+    }
+
+    private static long[] hash(String value) {
+        return MurmurHash3.hash128x64(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,227 @@
+package parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Class: BulkExporter
+ * Description: Streams a ParseResult into tab-separated files laid out for
+ * MySQL LOAD DATA LOCAL INFILE (one file per table). Word ids are assigned
+ * client-side so word_file_stats and next_word rows can be written without
+ * any database round-trips.
+ */
+public class BulkExporter {
+    // Column order of each file; must match database/SentenceBuilderDatabase.sql
+    public static final List<String> FILES_COLUMNS = List.of(
+        "file_id", "file_name", "file_path", "imported_at", "word_count", "sentence_count");
+    public static final List<String> WORDS_COLUMNS = List.of(
+        "word_id", "word_text", "total_count", "start_count", "end_count", "is_stopword", "last_seen_at");
+    public static final List<String> WORD_FILE_STATS_COLUMNS = List.of(
+        "word_id", "file_id", "count_in_file", "start_in_file", "end_in_file");
+    public static final List<String> NEXT_WORD_COLUMNS = List.of(
+        "from_word_id", "to_word_id", "transition_count", "follows_sentence_start", "precedes_sentence_end");
+
+    // Tables in foreign-key order: parents are always loaded before children
+    public static final List<String> TABLES = List.of("files", "words", "word_file_stats", "next_word");
+
+    // MySQL's NULL marker for the default LOAD DATA escape character
+    private static final String NULL_FIELD = "\\N";
+    private static final DateTimeFormatter DATETIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    // BulkLoader only loads into empty tables, so ids always start at 1
+    private static final int FIRST_WORD_ID = 1;
+    private static final int FILE_ID = 1;
+
+    public static Path tableFile(Path outputDir, String table) {
+        return outputDir.resolve(table + ".tsv");
+    }
+
+    public static List<String> columnsOf(String table) {
+        switch (table) {
+            case "files":
+                return FILES_COLUMNS;
+            case "words":
+                return WORDS_COLUMNS;
+            case "word_file_stats":
+                return WORD_FILE_STATS_COLUMNS;
+            case "next_word":
+                return NEXT_WORD_COLUMNS;
+            default:
+                throw new IllegalArgumentException("Unknown table: " + table);
+        }
+    }
+
+    public ExportResult export(ParseResult result, Path sourceFile, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Map<String, Integer> wordIds = assignWordIds(result);
+        String importedAt = formatInstant(result.getImportedAt());
+
+        writeFiles(result, sourceFile, importedAt, tableFile(outputDir, "files"));
+        writeWords(result, wordIds, importedAt, tableFile(outputDir, "words"));
+        writeWordFileStats(result, wordIds, tableFile(outputDir, "word_file_stats"));
+        int transitions = writeNextWord(result, wordIds, tableFile(outputDir, "next_word"));
+
+        return new ExportResult(outputDir, FILE_ID, wordIds.size(), transitions);
+    }
+
+    // Ids follow wordCounts insertion order, i.e. first appearance in the source text
+    private Map<String, Integer> assignWordIds(ParseResult result) {
+        Map<String, Integer> wordIds = new HashMap<>(result.getWordCounts().size() * 2);
+        int nextId = FIRST_WORD_ID;
+        for (String word : result.getWordCounts().keySet()) {
+            wordIds.put(word, nextId++);
+        }
+        return wordIds;
+    }
+
+    private void writeFiles(ParseResult result, Path sourceFile, String importedAt, Path out)
+        throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            writeRow(writer,
+                Integer.toString(FILE_ID),
+                escapeField(result.getFileName()),
+                sourceFile == null ? NULL_FIELD : escapeField(sourceFile.toAbsolutePath().toString()),
+                importedAt,
+                Integer.toString(result.getTotalWords()),
+                Integer.toString(result.getTotalSentences()));
+        }
+    }
+
+    private void writeWords(ParseResult result, Map<String, Integer> wordIds, String importedAt, Path out)
+        throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Integer> entry : result.getWordCounts().entrySet()) {
+                String word = entry.getKey();
+                writeRow(writer,
+                    Integer.toString(wordIds.get(word)),
+                    escapeField(word),
+                    Integer.toString(entry.getValue()),
+                    Integer.toString(result.getSentenceStartCounts().getOrDefault(word, 0)),
+                    Integer.toString(result.getSentenceEndCounts().getOrDefault(word, 0)),
+                    Stopwords.isStopword(word) ? "1" : "0",
+                    importedAt);
+            }
+        }
+    }
+
+    // A single ParseResult covers one file, so per-file stats equal the word totals
+    private void writeWordFileStats(ParseResult result, Map<String, Integer> wordIds, Path out)
+        throws IOException {
+        String fileIdText = Integer.toString(FILE_ID);
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Integer> entry : result.getWordCounts().entrySet()) {
+                String word = entry.getKey();
+                writeRow(writer,
+                    Integer.toString(wordIds.get(word)),
+                    fileIdText,
+                    Integer.toString(entry.getValue()),
+                    Integer.toString(result.getSentenceStartCounts().getOrDefault(word, 0)),
+                    Integer.toString(result.getSentenceEndCounts().getOrDefault(word, 0)));
+            }
+        }
+    }
+
+    private int writeNextWord(ParseResult result, Map<String, Integer> wordIds, Path out)
+        throws IOException {
+        int rows = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Map<String, Integer>> from : result.getNextWordCounts().entrySet()) {
+                String fromWord = from.getKey();
+                String fromId = Integer.toString(wordIds.get(fromWord));
+                for (Map.Entry<String, Integer> to : from.getValue().entrySet()) {
+                    String toWord = to.getKey();
+                    int flags = result.getTransitionFlags(fromWord, toWord);
+                    writeRow(writer,
+                        fromId,
+                        Integer.toString(wordIds.get(toWord)),
+                        Integer.toString(to.getValue()),
+                        (flags & ParseResult.FOLLOWS_SENTENCE_START) != 0 ? "1" : "0",
+                        (flags & ParseResult.PRECEDES_SENTENCE_END) != 0 ? "1" : "0");
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void writeRow(BufferedWriter writer, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write('\t');
+            }
+            writer.write(fields[i]);
+        }
+        writer.write('\n');
+    }
+
+    private static String formatInstant(Instant instant) {
+        return instant == null ? NULL_FIELD : DATETIME_FORMAT.format(instant);
+    }
+
+    // Escapes per LOAD DATA defaults: FIELDS ESCAPED BY '\\', TERMINATED BY '\t', LINES BY '\n'
+    static String escapeField(String value) {
+        if (value == null) {
+            return NULL_FIELD;
+        }
+
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            String replacement;
+            switch (ch) {
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                case '\0':
+                    replacement = "\\0";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(ch);
+                }
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+
+    public static class ExportResult {
+        public final Path outputDir;
+        public final int fileId;
+        public final int wordRows;
+        public final int transitionRows;
+
+        public ExportResult(Path outputDir, int fileId, int wordRows, int transitionRows) {
+            this.outputDir = outputDir;
+            this.fileId = fileId;
+            this.wordRows = wordRows;
+            this.transitionRows = transitionRows;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * Class: BulkLoader
+ * Description: Companion to BulkExporter. Loads the exported TSV files into
+ * empty tables with LOAD DATA LOCAL INFILE, disabling keys and foreign-key
+ * checks for the duration of the load and re-enabling them afterwards. Rolls
+ * back if any table loads a different number of rows than its file holds or
+ * raises warnings.
+ */
+public class BulkLoader {
+    private BulkLoader() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: java parser.BulkLoader <export-dir>");
+            System.exit(1);
+        }
+
+        Path exportDir = Path.of(args[0]);
+        Properties driverProperties = new Properties();
+        driverProperties.setProperty("allowLoadLocalInfile", "true");
+
+        try (Connection connection = Database.connect(driverProperties)) {
+            Map<String, Long> loaded = load(connection, exportDir);
+            for (Map.Entry<String, Long> entry : loaded.entrySet()) {
+                System.out.println("Loaded " + entry.getValue() + " rows into " + entry.getKey());
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to load export: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // The connection must have been opened with allowLoadLocalInfile=true
+    public static Map<String, Long> load(Connection connection, Path exportDir) throws SQLException {
+        Map<String, Long> fileRows = new LinkedHashMap<>();
+        for (String table : BulkExporter.TABLES) {
+            Path file = BulkExporter.tableFile(exportDir, table);
+            if (!Files.isRegularFile(file)) {
+                throw new SQLException("Missing export file: " + file);
+            }
+            fileRows.put(table, countLines(file));
+            // Exported ids start at 1 and words are not merged with existing rows
+            checkTableIsEmpty(connection, table);
+        }
+
+        Map<String, Long> loaded = new LinkedHashMap<>();
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement statement = connection.createStatement()) {
+            // ALTER TABLE commits implicitly, so keys are disabled before the load transaction starts
+            for (String table : BulkExporter.TABLES) {
+                statement.execute("ALTER TABLE " + table + " DISABLE KEYS");
+            }
+            // unique_checks stays on: words.word_text is unique under an accent-insensitive
+            // collation, so distinct parser words can still collide and must be caught
+            statement.execute("SET foreign_key_checks = 0");
+            connection.setAutoCommit(false);
+            try {
+                for (String table : BulkExporter.TABLES) {
+                    long rows = statement.executeLargeUpdate(
+                        loadDataSql(table, BulkExporter.tableFile(exportDir, table)));
+                    verifyLoad(statement, table, rows, fileRows.get(table));
+                    loaded.put(table, rows);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                // Re-enable even if a load failed so the session and tables are left usable
+                connection.setAutoCommit(autoCommit);
+                statement.execute("SET foreign_key_checks = 1");
+                for (String table : BulkExporter.TABLES) {
+                    statement.execute("ALTER TABLE " + table + " ENABLE KEYS");
+                }
+            }
+        }
+        return loaded;
+    }
+
+    // LOCAL loads turn duplicate-key and truncation errors into warnings and skip or alter rows
+    private static void verifyLoad(Statement statement, String table, long loadedRows, long fileRows)
+        throws SQLException {
+        String firstWarning = null;
+        try (ResultSet rs = statement.executeQuery("SHOW WARNINGS LIMIT 1")) {
+            if (rs.next()) {
+                firstWarning = rs.getString("Message");
+            }
+        }
+        if (loadedRows != fileRows || firstWarning != null) {
+            throw new SQLException("Load of " + table + " rejected: " + loadedRows + " of " + fileRows
+                + " rows loaded" + (firstWarning == null ? "" : ", first warning: " + firstWarning));
+        }
+    }
+
+    private static void checkTableIsEmpty(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+            if (rs.next()) {
+                throw new SQLException(table + " already holds rows; BulkLoader is for the initial load"
+                    + " into empty tables and does not merge words with existing ones");
+            }
+        }
+    }
+
+    private static long countLines(Path file) throws SQLException {
+        long lines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        } catch (IOException e) {
+            throw new SQLException("Unreadable export file " + file + ": " + e.getMessage(), e);
+        }
+        return lines;
+    }
+
+    static String loadDataSql(String table, Path file) {
+        String path = file.toAbsolutePath().toString()
+            .replace("\\", "\\\\")
+            .replace("'", "\\'");
+        return "LOAD DATA LOCAL INFILE '" + path + "'"
+            + " INTO TABLE " + table
+            + " CHARACTER SET utf8mb4"
+            + " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+            + " LINES TERMINATED BY '\\n'"
+            + " (" + String.join(", ", BulkExporter.columnsOf(table)) + ")";
+    }
+}
@@ -0,0 +1,52 @@
+package parser;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/*
+ * Class: Database
+ * Description: Opens JDBC connections to the sentence_builder MySQL schema.
+ * Connection settings come from environment variables so credentials never
+ * have to be passed on the command line.
+ */
+public final class Database {
+    public static final String URL_ENV = "SENTENCE_BUILDER_DB_URL";
+    public static final String USER_ENV = "SENTENCE_BUILDER_DB_USER";
+    public static final String PASSWORD_ENV = "SENTENCE_BUILDER_DB_PASSWORD";
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/sentence_builder";
+    private static final String DEFAULT_USER = "root";
+
+    private Database() {
+    }
+
+    public static Connection connect() throws SQLException {
+        return connect(new Properties());
+    }
+
+    // Extra driver properties (e.g. allowLoadLocalInfile) are layered on top of the credentials
+    public static Connection connect(Properties driverProperties) throws SQLException {
+        Properties properties = new Properties();
+        properties.putAll(driverProperties);
+        properties.setProperty("user", envOrDefault(USER_ENV, DEFAULT_USER));
+        properties.setProperty("password", envOrDefault(PASSWORD_ENV, ""));
+        return DriverManager.getConnection(envOrDefault(URL_ENV, DEFAULT_URL), properties);
+    }
+
+    // Connector/J streams rows one at a time instead of buffering the whole result set;
+    // the connection cannot run other statements until the result set is closed
+    public static Statement streamingStatement(Connection connection) throws SQLException {
+        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(Integer.MIN_VALUE);
+        return statement;
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
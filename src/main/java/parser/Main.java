@@ -9,7 +9,9 @@ import java.util.Map;
  * Class: Main
  * Created by: Archisha Sasson
  * Description: Command-line entry point that parses a text file, prints a
- * summary, and writes parse output as JSON.
+ * summary, and writes parse output as JSON. With --export it also writes
+ * TSV files for a MySQL bulk load (see BulkExporter / BulkLoader); the
+ * compaction flags prune the model first (see ModelCompactor).
  */
 // Code by Archisha Sasson
 public class Main {
@@ -17,26 +19,57 @@ public class Main {
     }
 
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: java parser.Main <file-path>");
-            System.exit(1);
+        if (args.length < 1) {
+            printUsage();
+        }
+
+        Path exportDir = null;
+        ModelCompactor.Options compaction = new ModelCompactor.Options();
+        for (int i = 1; i < args.length; ) {
+            if ("--export".equals(args[i]) && i + 1 < args.length) {
+                exportDir = Path.of(args[i + 1]);
+                i += 2;
+                continue;
+            }
+            int consumed = compaction.applyFlag(args, i);
+            if (consumed == 0) {
+                printUsage();
+            }
+            i += consumed;
         }
 
         Path inputFile = Path.of(args[0]);
         TextParser parser = new TextParser();
+        parser.setRecordTransitionFlags(exportDir != null);
 
         try {
             ParseResult result = parser.parse(inputFile);
             printSummary(result);
+            if (compaction.isEnabled()) {
+                System.out.println(new ModelCompactor(compaction).compact(result));
+            }
             Path outputPath = resolveOutputPath();
             writeJson(result, outputPath);
             System.out.println("JSON written to: " + outputPath.toAbsolutePath());
+
+            if (exportDir != null) {
+                BulkExporter.ExportResult export = new BulkExporter().export(result, inputFile, exportDir);
+                System.out.println("Bulk-load files written to: " + export.outputDir.toAbsolutePath()
+                    + " (" + export.wordRows + " words, " + export.transitionRows + " transitions)");
+            }
         } catch (IOException e) {
             System.err.println("Failed to parse file: " + e.getMessage());
             System.exit(1);
         }
     }
 
+    private static void printUsage() {
+        System.err.println("Usage: java parser.Main <file-path>"
+            + " [--export <output-dir>] "
+            + ModelCompactor.Options.USAGE);
+        System.exit(1);
+    }
+
     private static void printSummary(ParseResult result) {
         System.out.println("Parse summary:");
         System.out.println("File: " + result.getFileName());
@@ -0,0 +1,265 @@
+package parser;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/*
+ * Class: MarkovModel
+ * Description: Immutable, array-backed next-word model built from a
+ * ParseResult or loaded from the words/next_word tables. Sampling only
+ * reads the arrays, so a single instance can be shared by many threads,
+ * each with its own random source.
+ */
+public final class MarkovModel {
+    private static final int[] NO_SUCCESSORS = new int[0];
+    private static final long[] NO_WEIGHTS = new long[0];
+
+    private final String[] words;
+    // Database word ids (0 when the model was not loaded from the database)
+    private final int[] wordIds;
+    private final long[] totalCounts;
+    private final long[] endCounts;
+    private final int[] startWords;
+    private final long[] startCumulative;
+    private final int[][] successors;
+    private final long[][] successorCumulative;
+
+    private MarkovModel(String[] words, int[] wordIds, long[] totalCounts, long[] endCounts,
+                        long[] startCounts, int[][] successors, long[][] successorCounts) {
+        this.words = words;
+        this.wordIds = wordIds;
+        this.totalCounts = totalCounts;
+        this.endCounts = endCounts;
+        this.successors = successors;
+
+        int starters = 0;
+        for (long count : startCounts) {
+            if (count > 0) {
+                starters++;
+            }
+        }
+        this.startWords = new int[starters];
+        long[] startWeights = new long[starters];
+        for (int i = 0, s = 0; i < startCounts.length; i++) {
+            if (startCounts[i] > 0) {
+                startWords[s] = i;
+                startWeights[s++] = startCounts[i];
+            }
+        }
+        this.startCumulative = cumulative(startWeights);
+
+        this.successorCumulative = new long[successorCounts.length][];
+        for (int i = 0; i < successorCounts.length; i++) {
+            successorCumulative[i] = cumulative(successorCounts[i]);
+        }
+    }
+
+    public static MarkovModel fromParseResult(ParseResult result) {
+        Map<String, Integer> index = new HashMap<>(result.getWordCounts().size() * 2);
+        String[] words = result.getWordCounts().keySet().toArray(new String[0]);
+        long[] totalCounts = new long[words.length];
+        long[] startCounts = new long[words.length];
+        long[] endCounts = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            index.put(words[i], i);
+            totalCounts[i] = result.getWordCounts().get(words[i]);
+            startCounts[i] = result.getSentenceStartCounts().getOrDefault(words[i], 0);
+            endCounts[i] = result.getSentenceEndCounts().getOrDefault(words[i], 0);
+        }
+
+        int[][] successors = new int[words.length][];
+        long[][] successorCounts = new long[words.length][];
+        for (int i = 0; i < words.length; i++) {
+            Map<String, Integer> next = result.getNextWordCounts().get(words[i]);
+            if (next == null) {
+                successors[i] = NO_SUCCESSORS;
+                successorCounts[i] = NO_WEIGHTS;
+                continue;
+            }
+            successors[i] = new int[next.size()];
+            successorCounts[i] = new long[next.size()];
+            int s = 0;
+            for (Map.Entry<String, Integer> entry : next.entrySet()) {
+                successors[i][s] = index.get(entry.getKey());
+                successorCounts[i][s++] = entry.getValue();
+            }
+        }
+        return new MarkovModel(words, new int[words.length], totalCounts, endCounts,
+            startCounts, successors, successorCounts);
+    }
+
+    public static MarkovModel load(Connection connection) throws SQLException {
+        Map<Integer, Integer> index = new HashMap<>();
+        GrowableModel model = new GrowableModel();
+        try (Statement statement = Database.streamingStatement(connection);
+             ResultSet rs = statement.executeQuery(
+                 "SELECT word_id, word_text, total_count, start_count, end_count FROM words")) {
+            while (rs.next()) {
+                index.put(rs.getInt(1), model.size);
+                model.addWord(rs.getInt(1), rs.getString(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+            }
+        }
+
+        int[][] successors = new int[model.size][];
+        long[][] successorCounts = new long[model.size][];
+        try (Statement statement = Database.streamingStatement(connection);
+             ResultSet rs = statement.executeQuery(
+                 "SELECT from_word_id, to_word_id, transition_count FROM next_word"
+                     + " ORDER BY from_word_id, transition_count DESC")) {
+            int current = -1;
+            int[] ids = new int[16];
+            long[] counts = new long[16];
+            int size = 0;
+            while (rs.next()) {
+                Integer from = index.get(rs.getInt(1));
+                Integer to = index.get(rs.getInt(2));
+                if (from == null || to == null) {
+                    continue;
+                }
+                if (from != current) {
+                    if (current >= 0) {
+                        successors[current] = Arrays.copyOf(ids, size);
+                        successorCounts[current] = Arrays.copyOf(counts, size);
+                    }
+                    current = from;
+                    size = 0;
+                }
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                ids[size] = to;
+                counts[size++] = rs.getLong(3);
+            }
+            if (current >= 0) {
+                successors[current] = Arrays.copyOf(ids, size);
+                successorCounts[current] = Arrays.copyOf(counts, size);
+            }
+        }
+        for (int i = 0; i < model.size; i++) {
+            if (successors[i] == null) {
+                successors[i] = NO_SUCCESSORS;
+                successorCounts[i] = NO_WEIGHTS;
+            }
+        }
+
+        return new MarkovModel(
+            Arrays.copyOf(model.words, model.size),
+            Arrays.copyOf(model.wordIds, model.size),
+            Arrays.copyOf(model.totalCounts, model.size),
+            Arrays.copyOf(model.endCounts, model.size),
+            Arrays.copyOf(model.startCounts, model.size),
+            successors, successorCounts);
+    }
+
+    public boolean canGenerate() {
+        return startWords.length > 0;
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public String getWord(int index) {
+        return words[index];
+    }
+
+    public int getWordId(int index) {
+        return wordIds[index];
+    }
+
+    public int sampleStart(SplittableRandom random) {
+        return startWords[sample(startCumulative, random)];
+    }
+
+    // Returns the next word index, or -1 when the sentence should end here
+    public int sampleNext(int word, SplittableRandom random) {
+        if (endCounts[word] > 0 && totalCounts[word] > 0
+            && random.nextLong(totalCounts[word]) < endCounts[word]) {
+            return -1;
+        }
+        long[] cumulative = successorCumulative[word];
+        if (cumulative.length == 0 || cumulative[cumulative.length - 1] == 0) {
+            return -1;
+        }
+        return successors[word][sample(successorCumulative[word], random)];
+    }
+
+    // Random walk from a sampled start word; stops at an end word, a dead end or maxWords
+    public int generate(SplittableRandom random, int maxWords, StringBuilder out) {
+        int start = sampleStart(random);
+        String first = words[start];
+        out.append(first.substring(0, 1).toUpperCase(Locale.ROOT)).append(first, 1, first.length());
+
+        int current = start;
+        for (int count = 1; count < maxWords; count++) {
+            current = sampleNext(current, random);
+            if (current < 0) {
+                break;
+            }
+            out.append(' ').append(words[current]);
+        }
+        out.append('.');
+        return start;
+    }
+
+    // First index whose cumulative weight exceeds a uniform draw; zero-weight entries are never picked
+    private static int sample(long[] cumulative, SplittableRandom random) {
+        long target = random.nextLong(cumulative[cumulative.length - 1]);
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static long[] cumulative(long[] weights) {
+        long[] cumulative = new long[weights.length];
+        long total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += Math.max(0, weights[i]);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    // Column buffers used while streaming the words table
+    private static final class GrowableModel {
+        String[] words = new String[1024];
+        int[] wordIds = new int[1024];
+        long[] totalCounts = new long[1024];
+        long[] startCounts = new long[1024];
+        long[] endCounts = new long[1024];
+        int size = 0;
+
+        void addWord(int wordId, String word, long total, long start, long end) {
+            if (size == words.length) {
+                int capacity = size * 2;
+                words = Arrays.copyOf(words, capacity);
+                wordIds = Arrays.copyOf(wordIds, capacity);
+                totalCounts = Arrays.copyOf(totalCounts, capacity);
+                startCounts = Arrays.copyOf(startCounts, capacity);
+                endCounts = Arrays.copyOf(endCounts, capacity);
+            }
+            words[size] = word;
+            wordIds[size] = wordId;
+            totalCounts[size] = total;
+            startCounts[size] = start;
+            endCounts[size] = end;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,680 @@
+package parser;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/*
+ * Class: ModelCompactor
+ * Description: Shrinks a next-word model by dropping rare words and
+ * transitions, capping successors per word, and optionally trimming
+ * stopword-heavy successor lists. Works on an in-memory ParseResult or on
+ * the words/next_word tables, and reports the space saved and the
+ * probability mass given up so size can be traded against quality.
+ */
+public class ModelCompactor {
+    // Rough per-entry heap cost of a LinkedHashMap<String, Integer> entry (entry, table slot, boxed count)
+    private static final long MAP_ENTRY_BYTES = 56;
+    // Rough heap cost of an empty nested successor map
+    private static final long MAP_BYTES = 64;
+    // String header plus backing array header
+    private static final long STRING_BYTES = 40;
+
+    private final Options options;
+
+    public ModelCompactor(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; ) {
+            int consumed = options.applyFlag(args, i);
+            if (consumed == 0) {
+                System.err.println("Usage: java parser.ModelCompactor " + Options.USAGE);
+                System.exit(1);
+            }
+            i += consumed;
+        }
+
+        try (Connection connection = Database.connect()) {
+            Report report = new ModelCompactor(options).compact(connection);
+            System.out.println(report);
+        } catch (SQLException e) {
+            System.err.println("Failed to compact model: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // In-memory compaction (modifies the ParseResult in place)
+    // ---------------------------------------------------------------------
+
+    public Report compact(ParseResult result) {
+        Map<String, Integer> wordCounts = result.getWordCounts();
+        Map<String, Integer> startCounts = result.getSentenceStartCounts();
+        Map<String, Integer> endCounts = result.getSentenceEndCounts();
+        Map<String, Map<String, Integer>> nextWordCounts = result.getNextWordCounts();
+
+        Report report = new Report();
+        report.wordsBefore = wordCounts.size();
+        report.transitionsBefore = countTransitions(nextWordCounts);
+        long transitionMassBefore = transitionMass(nextWordCounts);
+        long startMassBefore = sum(startCounts);
+        long endMassBefore = sum(endCounts);
+        long bytesBefore = estimateBytes(result);
+
+        // Keep the most common start/end word so both distributions stay non-empty, and one
+        // start-to-end path so the compacted model can still finish a sentence
+        Set<String> pinned = new HashSet<>();
+        addMostFrequent(startCounts, pinned);
+        addMostFrequent(endCounts, pinned);
+        Map<String, String> pathSuccessor = shortestStartToEndPath(result);
+        pinned.addAll(pathSuccessor.keySet());
+        pinned.addAll(pathSuccessor.values());
+
+        if (options.minWordCount > 1) {
+            Set<String> removed = new HashSet<>();
+            wordCounts.entrySet().removeIf(entry -> {
+                boolean drop = entry.getValue() < options.minWordCount && !pinned.contains(entry.getKey());
+                if (drop) {
+                    removed.add(entry.getKey());
+                }
+                return drop;
+            });
+            if (!removed.isEmpty()) {
+                startCounts.keySet().removeAll(removed);
+                endCounts.keySet().removeAll(removed);
+                nextWordCounts.keySet().removeAll(removed);
+                for (Map<String, Integer> successors : nextWordCounts.values()) {
+                    successors.keySet().removeAll(removed);
+                }
+            }
+        }
+
+        if (options.minTransitionCount > 1) {
+            for (Map.Entry<String, Map<String, Integer>> entry : nextWordCounts.entrySet()) {
+                String keep = pathSuccessor.get(entry.getKey());
+                entry.getValue().entrySet().removeIf(successor ->
+                    successor.getValue() < options.minTransitionCount && !successor.getKey().equals(keep));
+            }
+        }
+
+        if (options.collapseStopwords) {
+            for (Map.Entry<String, Map<String, Integer>> entry : nextWordCounts.entrySet()) {
+                collapseStopwords(entry.getValue(), pathSuccessor.get(entry.getKey()));
+            }
+        }
+
+        if (options.maxSuccessors > 0) {
+            for (Map.Entry<String, Map<String, Integer>> entry : nextWordCounts.entrySet()) {
+                keepTop(entry.getValue(), options.maxSuccessors, word -> true, pathSuccessor.get(entry.getKey()));
+            }
+        }
+
+        nextWordCounts.values().removeIf(Map::isEmpty);
+        pruneTransitionFlags(result);
+
+        // A start word whose every path now dead-ends would only produce unfinished sentences
+        startCounts.keySet().retainAll(distancesToEnd(nextWordCounts, endCounts).keySet());
+
+        report.wordsAfter = wordCounts.size();
+        report.transitionsAfter = countTransitions(nextWordCounts);
+        report.transitionMassLost = lostFraction(transitionMassBefore, transitionMass(nextWordCounts));
+        report.startMassLost = lostFraction(startMassBefore, sum(startCounts));
+        report.endMassLost = lostFraction(endMassBefore, sum(endCounts));
+        report.bytesSaved = bytesBefore - estimateBytes(result);
+        return report;
+    }
+
+    // A list is stopword-heavy when stopwords carry at least stopwordShare of its mass
+    private void collapseStopwords(Map<String, Integer> successors, String keep) {
+        long total = 0;
+        long stopwordMass = 0;
+        for (Map.Entry<String, Integer> entry : successors.entrySet()) {
+            total += entry.getValue();
+            if (Stopwords.isStopword(entry.getKey())) {
+                stopwordMass += entry.getValue();
+            }
+        }
+        if (total > 0 && stopwordMass >= options.stopwordShare * total) {
+            keepTop(successors, options.stopwordSuccessorCap, Stopwords::isStopword, keep);
+        }
+    }
+
+    // Keeps the `limit` highest-count entries among those matching `subject`, always including
+    // `keep` when it is one of them; ties keep earlier entries
+    private static void keepTop(Map<String, Integer> successors, int limit, Predicate<String> subject,
+                                String keep) {
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : successors.entrySet()) {
+            if (subject.test(entry.getKey())) {
+                candidates.add(entry);
+            }
+        }
+        if (candidates.size() <= limit) {
+            return;
+        }
+
+        Comparator<Map.Entry<String, Integer>> keptFirst =
+            Comparator.comparing(entry -> !entry.getKey().equals(keep));
+        candidates.sort(keptFirst.thenComparing(
+            Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())));
+        Set<String> drop = new HashSet<>();
+        for (int i = limit; i < candidates.size(); i++) {
+            drop.add(candidates.get(i).getKey());
+        }
+        successors.keySet().removeAll(drop);
+    }
+
+    private static void addMostFrequent(Map<String, Integer> counts, Set<String> into) {
+        String best = null;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > bestCount) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        if (best != null) {
+            into.add(best);
+        }
+    }
+
+    // Walks from the most frequent start word that can reach an end word, taking the highest-count
+    // successor that stays on a shortest path; returns each path word mapped to the next one
+    private static Map<String, String> shortestStartToEndPath(ParseResult result) {
+        Map<String, Map<String, Integer>> nextWordCounts = result.getNextWordCounts();
+        Map<String, Integer> distances = distancesToEnd(nextWordCounts, result.getSentenceEndCounts());
+        Map<String, Integer> reachableStarts = new HashMap<>(result.getSentenceStartCounts());
+        reachableStarts.keySet().retainAll(distances.keySet());
+
+        Set<String> start = new HashSet<>();
+        addMostFrequent(reachableStarts, start);
+        Map<String, String> path = new HashMap<>();
+        if (start.isEmpty()) {
+            return path;
+        }
+
+        String current = start.iterator().next();
+        while (distances.get(current) > 0) {
+            int nextDistance = distances.get(current) - 1;
+            String best = null;
+            int bestCount = 0;
+            for (Map.Entry<String, Integer> entry : nextWordCounts.get(current).entrySet()) {
+                Integer distance = distances.get(entry.getKey());
+                if (distance != null && distance == nextDistance && entry.getValue() > bestCount) {
+                    best = entry.getKey();
+                    bestCount = entry.getValue();
+                }
+            }
+            path.put(current, best);
+            current = best;
+        }
+        return path;
+    }
+
+    // Fewest transitions from each word to any end word; words that cannot reach one are absent
+    private static Map<String, Integer> distancesToEnd(Map<String, Map<String, Integer>> nextWordCounts,
+                                                       Map<String, Integer> endCounts) {
+        Map<String, List<String>> predecessors = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : nextWordCounts.entrySet()) {
+            for (String to : entry.getValue().keySet()) {
+                predecessors.computeIfAbsent(to, word -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+
+        Map<String, Integer> distances = new HashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        for (String word : endCounts.keySet()) {
+            distances.put(word, 0);
+            queue.add(word);
+        }
+        while (!queue.isEmpty()) {
+            String word = queue.poll();
+            int distance = distances.get(word) + 1;
+            for (String from : predecessors.getOrDefault(word, List.of())) {
+                if (distances.putIfAbsent(from, distance) == null) {
+                    queue.add(from);
+                }
+            }
+        }
+        return distances;
+    }
+
+    // Drops flags recorded for transitions that compaction removed
+    private static void pruneTransitionFlags(ParseResult result) {
+        Map<String, Map<String, Integer>> nextWordCounts = result.getNextWordCounts();
+        result.getTransitionFlags().entrySet().removeIf(entry -> {
+            Map<String, Integer> successors = nextWordCounts.get(entry.getKey());
+            if (successors == null) {
+                return true;
+            }
+            entry.getValue().keySet().retainAll(successors.keySet());
+            return entry.getValue().isEmpty();
+        });
+    }
+
+    // Estimated heap footprint of the model maps; good for comparing before/after, not exact
+    static long estimateBytes(ParseResult result) {
+        long bytes = 0;
+        for (String word : result.getWordCounts().keySet()) {
+            bytes += MAP_ENTRY_BYTES + STRING_BYTES + word.length();
+        }
+        bytes += MAP_ENTRY_BYTES * (result.getSentenceStartCounts().size() + result.getSentenceEndCounts().size());
+        bytes += (MAP_ENTRY_BYTES + MAP_BYTES) * result.getNextWordCounts().size();
+        bytes += MAP_ENTRY_BYTES * countTransitions(result.getNextWordCounts());
+        bytes += (MAP_ENTRY_BYTES + MAP_BYTES) * result.getTransitionFlags().size();
+        bytes += MAP_ENTRY_BYTES * countTransitions(result.getTransitionFlags());
+        return bytes;
+    }
+
+    private static long countTransitions(Map<String, Map<String, Integer>> nextWordCounts) {
+        long count = 0;
+        for (Map<String, Integer> successors : nextWordCounts.values()) {
+            count += successors.size();
+        }
+        return count;
+    }
+
+    private static long transitionMass(Map<String, Map<String, Integer>> nextWordCounts) {
+        long mass = 0;
+        for (Map<String, Integer> successors : nextWordCounts.values()) {
+            mass += sum(successors);
+        }
+        return mass;
+    }
+
+    private static long sum(Map<String, Integer> counts) {
+        long total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static double lostFraction(long before, long after) {
+        return before == 0 ? 0.0 : (double) (before - after) / before;
+    }
+
+    // ---------------------------------------------------------------------
+    // Database compaction (words / next_word tables, single transaction)
+    // ---------------------------------------------------------------------
+
+    public Report compact(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            Report report = compactTables(connection);
+            connection.commit();
+            return report;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Report compactTables(Connection connection) throws SQLException {
+        Report report = new Report();
+        long[] before = tableTotals(connection);
+        long wordRowBytes = averageRowLength(connection, "words");
+        long transitionRowBytes = averageRowLength(connection, "next_word");
+        long statsRowBytes = averageRowLength(connection, "word_file_stats");
+        long statsBefore = queryLong(connection, "SELECT COUNT(*) FROM word_file_stats");
+
+        // Same path the in-memory compaction pins, so both modes accept the same thresholds
+        List<Integer> path = shortestStartToEndPath(connection);
+        String pathWords = pathWordsSql("word_id", path);
+
+        if (options.minWordCount > 1) {
+            // Deleting a word cascades to next_word and word_file_stats; words typed by
+            // users, the top start/end words and the pinned path are kept
+            try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM words WHERE total_count < ?"
+                    + " AND NOT EXISTS (SELECT 1 FROM user_input_words u WHERE u.word_id = words.word_id)"
+                    + " AND word_id NOT IN (SELECT word_id FROM ("
+                    + "   (SELECT word_id FROM words WHERE start_count > 0 ORDER BY start_count DESC, word_id LIMIT 1)"
+                    + "   UNION"
+                    + "   (SELECT word_id FROM words WHERE end_count > 0 ORDER BY end_count DESC, word_id LIMIT 1)"
+                    + " ) pinned)"
+                    + " AND NOT (" + pathWords + ")")) {
+                delete.setInt(1, options.minWordCount);
+                delete.executeUpdate();
+            }
+        }
+
+        if (options.minTransitionCount > 1) {
+            try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM next_word WHERE transition_count < ?"
+                    + " AND NOT (" + pathTransitionsSql("from_word_id", "to_word_id", path) + ")")) {
+                delete.setInt(1, options.minTransitionCount);
+                delete.executeUpdate();
+            }
+        }
+
+        // Kept in step with parser.Stopwords on every run, whether or not stopwords are trimmed
+        markStopwords(connection);
+
+        if (options.collapseStopwords) {
+            pruneTransitions(connection,
+                "SELECT from_word_id, to_word_id FROM ("
+                    + " SELECT n.from_word_id, n.to_word_id, w.is_stopword,"
+                    + "  ROW_NUMBER() OVER (PARTITION BY n.from_word_id, w.is_stopword"
+                    + "   ORDER BY " + pathTransitionsSql("n.from_word_id", "n.to_word_id", path) + " DESC,"
+                    + "    n.transition_count DESC, n.to_word_id) AS rn,"
+                    + "  SUM(CASE WHEN w.is_stopword THEN n.transition_count ELSE 0 END)"
+                    + "   OVER (PARTITION BY n.from_word_id) AS stopword_mass,"
+                    + "  SUM(n.transition_count) OVER (PARTITION BY n.from_word_id) AS total_mass"
+                    + " FROM next_word n JOIN words w ON w.word_id = n.to_word_id"
+                    + ") ranked WHERE is_stopword AND stopword_mass >= ? * total_mass AND rn > ?",
+                options.stopwordShare, options.stopwordSuccessorCap);
+        }
+
+        if (options.maxSuccessors > 0) {
+            pruneTransitions(connection,
+                "SELECT from_word_id, to_word_id FROM ("
+                    + " SELECT from_word_id, to_word_id,"
+                    + "  ROW_NUMBER() OVER (PARTITION BY from_word_id"
+                    + "   ORDER BY " + pathTransitionsSql("from_word_id", "to_word_id", path) + " DESC,"
+                    + "    transition_count DESC, to_word_id) AS rn"
+                    + " FROM next_word"
+                    + ") ranked WHERE rn > ?",
+                options.maxSuccessors);
+        }
+
+        dropUnreachableStarts(connection);
+
+        long[] after = tableTotals(connection);
+        long statsAfter = queryLong(connection, "SELECT COUNT(*) FROM word_file_stats");
+        report.wordsBefore = before[0];
+        report.wordsAfter = after[0];
+        report.transitionsBefore = before[1];
+        report.transitionsAfter = after[1];
+        report.transitionMassLost = lostFraction(before[2], after[2]);
+        report.startMassLost = lostFraction(before[3], after[3]);
+        report.endMassLost = lostFraction(before[4], after[4]);
+        report.bytesSaved = (before[0] - after[0]) * wordRowBytes
+            + (before[1] - after[1]) * transitionRowBytes
+            + (statsBefore - statsAfter) * statsRowBytes;
+        return report;
+    }
+
+    // Clears start_count on words that can no longer reach an end word; fails (and so rolls back)
+    // if that leaves no start word at all
+    private static void dropUnreachableStarts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            buildWordDistances(statement);
+            statement.executeUpdate("UPDATE words SET start_count = 0 WHERE start_count > 0"
+                + " AND word_id NOT IN (SELECT word_id FROM word_distance)");
+            statement.execute("DROP TEMPORARY TABLE word_distance");
+        }
+        if (queryLong(connection, "SELECT COUNT(*) FROM words WHERE start_count > 0") == 0) {
+            throw new SQLException("Compaction would leave no start word that can reach an end word;"
+                + " lower the thresholds");
+        }
+    }
+
+    // Word ids along the shortest path from the most frequent start word that can reach an end
+    // word, taking the highest-count successor at each step; mirrors the in-memory version
+    private static List<Integer> shortestStartToEndPath(Connection connection) throws SQLException {
+        List<Integer> path = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            buildWordDistances(statement);
+            int current = 0;
+            int distance = 0;
+            try (ResultSet rs = statement.executeQuery(
+                "SELECT w.word_id, d.dist FROM words w JOIN word_distance d ON d.word_id = w.word_id"
+                    + " WHERE w.start_count > 0 ORDER BY w.start_count DESC, w.word_id LIMIT 1")) {
+                if (rs.next()) {
+                    current = rs.getInt(1);
+                    distance = rs.getInt(2);
+                    path.add(current);
+                }
+            }
+            try (PreparedStatement step = connection.prepareStatement(
+                "SELECT n.to_word_id FROM next_word n JOIN word_distance d ON d.word_id = n.to_word_id"
+                    + " WHERE n.from_word_id = ? AND d.dist = ?"
+                    + " ORDER BY n.transition_count DESC, n.to_word_id LIMIT 1")) {
+                while (!path.isEmpty() && distance > 0) {
+                    distance--;
+                    step.setInt(1, current);
+                    step.setInt(2, distance);
+                    try (ResultSet rs = step.executeQuery()) {
+                        rs.next();
+                        current = rs.getInt(1);
+                    }
+                    path.add(current);
+                }
+            }
+            statement.execute("DROP TEMPORARY TABLE word_distance");
+        }
+        return path;
+    }
+
+    // Fills temporary table word_distance with the fewest transitions from each word to an end
+    // word, one level per round; MySQL cannot read a temporary table twice in one statement, so
+    // each level's frontier gets its own table
+    private static void buildWordDistances(Statement statement) throws SQLException {
+        statement.execute("DROP TEMPORARY TABLE IF EXISTS word_distance");
+        statement.execute("CREATE TEMPORARY TABLE word_distance (PRIMARY KEY (word_id))"
+            + " SELECT word_id, 0 AS dist FROM words WHERE end_count > 0");
+        String frontier = "word_frontier_a";
+        String next = "word_frontier_b";
+        statement.execute("DROP TEMPORARY TABLE IF EXISTS " + frontier);
+        statement.execute("CREATE TEMPORARY TABLE " + frontier + " (PRIMARY KEY (word_id))"
+            + " SELECT word_id FROM words WHERE end_count > 0");
+        for (int distance = 1; ; distance++) {
+            statement.execute("DROP TEMPORARY TABLE IF EXISTS " + next);
+            statement.execute("CREATE TEMPORARY TABLE " + next + " (PRIMARY KEY (word_id))"
+                + " SELECT DISTINCT n.from_word_id AS word_id FROM next_word n"
+                + " JOIN " + frontier + " f ON f.word_id = n.to_word_id"
+                + " LEFT JOIN word_distance d ON d.word_id = n.from_word_id"
+                + " WHERE d.word_id IS NULL");
+            int added = statement.executeUpdate(
+                "INSERT INTO word_distance SELECT word_id, " + distance + " FROM " + next);
+            statement.execute("DROP TEMPORARY TABLE " + frontier);
+            String swap = frontier;
+            frontier = next;
+            next = swap;
+            if (added == 0) {
+                break;
+            }
+        }
+        statement.execute("DROP TEMPORARY TABLE " + frontier);
+    }
+
+    // "column IN (ids)" for the pinned path, or FALSE when there is none
+    private static String pathWordsSql(String column, List<Integer> path) {
+        if (path.isEmpty()) {
+            return "FALSE";
+        }
+        StringBuilder sql = new StringBuilder(column).append(" IN (");
+        for (int i = 0; i < path.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(path.get(i));
+        }
+        return sql.append(")").toString();
+    }
+
+    // "(from, to) IN ((a, b), ...)" for consecutive pairs of the pinned path, or FALSE when it has none
+    private static String pathTransitionsSql(String fromColumn, String toColumn, List<Integer> path) {
+        if (path.size() < 2) {
+            return "FALSE";
+        }
+        StringBuilder sql = new StringBuilder("(").append(fromColumn).append(", ").append(toColumn)
+            .append(") IN (");
+        for (int i = 1; i < path.size(); i++) {
+            sql.append(i == 1 ? "" : ", ").append('(').append(path.get(i - 1)).append(", ")
+                .append(path.get(i)).append(')');
+        }
+        return sql.append(")").toString();
+    }
+
+    // Rewrites every row so words dropped from the list are cleared too; the binary collation
+    // matches Stopwords.isStopword instead of word_text's accent-insensitive one ("á" is not "a")
+    private static void markStopwords(Connection connection) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+            "UPDATE words SET is_stopword = (word_text COLLATE utf8mb4_bin IN (");
+        List<String> stopwords = new ArrayList<>(Stopwords.ENGLISH);
+        for (int i = 0; i < stopwords.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append("))");
+        try (PreparedStatement update = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < stopwords.size(); i++) {
+                update.setString(i + 1, stopwords.get(i));
+            }
+            update.executeUpdate();
+        }
+    }
+
+    // MySQL cannot delete from next_word while selecting from it, so victims go through a temporary table
+    private static void pruneTransitions(Connection connection, String selectVictims, Object... params)
+        throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TEMPORARY TABLE IF EXISTS next_word_prune");
+            try (PreparedStatement create = connection.prepareStatement(
+                "CREATE TEMPORARY TABLE next_word_prune (PRIMARY KEY (from_word_id, to_word_id)) "
+                    + selectVictims)) {
+                for (int i = 0; i < params.length; i++) {
+                    create.setObject(i + 1, params[i]);
+                }
+                create.executeUpdate();
+            }
+            statement.executeUpdate("DELETE n FROM next_word n JOIN next_word_prune p"
+                + " ON p.from_word_id = n.from_word_id AND p.to_word_id = n.to_word_id");
+            statement.execute("DROP TEMPORARY TABLE next_word_prune");
+        }
+    }
+
+    // {word rows, transition rows, transition mass, start mass, end mass}
+    private static long[] tableTotals(Connection connection) throws SQLException {
+        long[] totals = new long[5];
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery(
+                "SELECT COUNT(*), COALESCE(SUM(start_count), 0), COALESCE(SUM(end_count), 0) FROM words")) {
+                rs.next();
+                totals[0] = rs.getLong(1);
+                totals[3] = rs.getLong(2);
+                totals[4] = rs.getLong(3);
+            }
+            try (ResultSet rs = statement.executeQuery(
+                "SELECT COUNT(*), COALESCE(SUM(transition_count), 0) FROM next_word")) {
+                rs.next();
+                totals[1] = rs.getLong(1);
+                totals[2] = rs.getLong(2);
+            }
+        }
+        return totals;
+    }
+
+    private static long averageRowLength(Connection connection, String table) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+            "SELECT COALESCE(AVG_ROW_LENGTH, 0) FROM information_schema.TABLES"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            query.setString(1, table);
+            try (ResultSet rs = query.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Thresholds of 1 and a successor cap of 0 leave the model unchanged
+    public static class Options {
+        public static final String USAGE = "[--min-word-count <n>] [--min-transition-count <n>]"
+            + " [--max-successors <n>] [--collapse-stopwords]";
+
+        public int minWordCount = 1;
+        public int minTransitionCount = 1;
+        public int maxSuccessors = 0;
+        public boolean collapseStopwords = false;
+        // Share of successor mass that makes a list "stopword-heavy"
+        public double stopwordShare = 0.5;
+        // Stopword successors kept in a stopword-heavy list
+        public int stopwordSuccessorCap = 3;
+
+        public boolean isEnabled() {
+            return minWordCount > 1 || minTransitionCount > 1 || maxSuccessors > 0 || collapseStopwords;
+        }
+
+        // Applies the flag at args[index]; returns how many arguments it used, or 0 if it is not a
+        // compaction flag or its value is not a positive integer
+        public int applyFlag(String[] args, int index) {
+            String flag = args[index];
+            if ("--collapse-stopwords".equals(flag)) {
+                collapseStopwords = true;
+                return 1;
+            }
+            if (index + 1 >= args.length) {
+                return 0;
+            }
+
+            int value;
+            try {
+                value = Integer.parseInt(args[index + 1]);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+            // Zero or negative thresholds and caps are never meaningful; treat them as bad usage
+            if (value < 1) {
+                return 0;
+            }
+            switch (flag) {
+                case "--min-word-count":
+                    minWordCount = value;
+                    return 2;
+                case "--min-transition-count":
+                    minTransitionCount = value;
+                    return 2;
+                case "--max-successors":
+                    maxSuccessors = value;
+                    return 2;
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    public static class Report {
+        public long wordsBefore;
+        public long wordsAfter;
+        public long transitionsBefore;
+        public long transitionsAfter;
+        // Fractions (0..1) of the original counts that were dropped
+        public double transitionMassLost;
+        public double startMassLost;
+        public double endMassLost;
+        // Estimated heap bytes (in memory) or table bytes (database) freed
+        public long bytesSaved;
+
+        @Override
+        public String toString() {
+            return "Compaction summary:\n"
+                + "Words: " + wordsBefore + " -> " + wordsAfter + "\n"
+                + "Transitions: " + transitionsBefore + " -> " + transitionsAfter + "\n"
+                + "Estimated bytes saved: " + bytesSaved + "\n"
+                + String.format("Probability mass lost: transitions %.2f%%, starts %.2f%%, ends %.2f%%",
+                    transitionMassLost * 100, startMassLost * 100, endMassLost * 100);
+        }
+    }
+}
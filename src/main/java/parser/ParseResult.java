@@ -1,6 +1,7 @@
 package parser;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -12,6 +13,10 @@ import java.util.Map;
  */
 // Code by Archisha Sasson
 public class ParseResult {
+    // Transition flag bits: leaves a sentence's first word / enters its last word
+    public static final int FOLLOWS_SENTENCE_START = 1;
+    public static final int PRECEDES_SENTENCE_END = 2;
+
     // Maps the words to their counts:
     private final Map<String, Integer> wordCounts = new LinkedHashMap<>();
     // If a word appears here, it CAN start a sentence. If not, it has not started sentence:
@@ -19,6 +24,8 @@ public class ParseResult {
     private final Map<String, Integer> sentenceEndCounts = new LinkedHashMap<>();
     // A nested map, so for each word, what words follow it and how often (important for generating)
     private final Map<String, Map<String, Integer>> nextWordCounts = new LinkedHashMap<>();
+    // next_word flag bits per transition; only filled when the parser is asked to record them
+    private final Map<String, Map<String, Integer>> transitionFlags = new HashMap<>();
 
     // Sammy Pandey: To track average word length -----------------------------
     // (Maybe be useful for database/reports?)
@@ -60,6 +67,10 @@ public class ParseResult {
         return nextWordCounts;
     }
 
+    public Map<String, Map<String, Integer>> getTransitionFlags() {
+        return transitionFlags;
+    }
+
     public String getFileName() {
         return fileName;
     }
@@ -119,5 +130,16 @@ public class ParseResult {
             .computeIfAbsent(currentWord, ignored -> new LinkedHashMap<>())
             .merge(nextWord, 1, Integer::sum);
     }
+
+    public void markTransition(String currentWord, String nextWord, int flag) {
+        transitionFlags
+            .computeIfAbsent(currentWord, ignored -> new HashMap<>())
+            .merge(nextWord, flag, (existing, added) -> existing | added);
+    }
+
+    public int getTransitionFlags(String currentWord, String nextWord) {
+        Map<String, Integer> flags = transitionFlags.get(currentWord);
+        return flags == null ? 0 : flags.getOrDefault(nextWord, 0);
+    }
 }
 // End of Code by Archisha Sasson
@@ -0,0 +1,29 @@
+package parser;
+
+import java.util.Set;
+
+/*
+ * Class: Stopwords
+ * Description: Common English function words. Used to fill words.is_stopword
+ * on export and by ModelCompactor when trimming stopword-heavy successor lists.
+ * Entries are in normalized (lowercase) form.
+ */
+public final class Stopwords {
+    public static final Set<String> ENGLISH = Set.of(
+        "a", "about", "after", "all", "also", "an", "and", "any", "are", "as", "at",
+        "be", "been", "but", "by", "can", "could", "did", "do", "does", "for", "from",
+        "had", "has", "have", "he", "her", "him", "his", "how", "i", "if", "in", "into",
+        "is", "it", "its", "just", "me", "my", "no", "not", "of", "on", "or", "our",
+        "out", "over", "she", "so", "some", "than", "that", "the", "their", "them",
+        "then", "there", "these", "they", "this", "those", "to", "up", "us", "was",
+        "we", "were", "what", "when", "which", "who", "will", "with", "would", "you",
+        "your"
+    );
+
+    private Stopwords() {
+    }
+
+    public static boolean isStopword(String word) {
+        return ENGLISH.contains(word);
+    }
+}
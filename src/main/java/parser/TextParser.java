@@ -2,6 +2,7 @@ package parser;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -19,6 +20,8 @@ import java.util.List;
 public class TextParser {
     private final Tokenizer tokenizer;
     private final Normalizer normalizer;
+    // next_word flags are only needed for bulk export, so most parses skip the bookkeeping
+    private boolean recordTransitionFlags = false;
 
     public TextParser() {
         this(new Tokenizer(), new Normalizer());
@@ -29,6 +32,10 @@ public class TextParser {
         this.normalizer = normalizer;
     }
 
+    public void setRecordTransitionFlags(boolean recordTransitionFlags) {
+        this.recordTransitionFlags = recordTransitionFlags;
+    }
+
     public ParseResult parse(Path file) throws IOException {
         // Sammy Pandey: Added input validation --------------------------------
         if (!Files.exists(file)) {
@@ -40,20 +47,29 @@ public class TextParser {
         // ----------------------------------------------------------------------
 
         // Shriram Janardhan: Streaming parser - uses BufferedReader to avoid loading full file into memory
-        Tokenizer.StreamResult streamResult;
         try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
-            streamResult = tokenizer.tokenizeStreaming(reader);
+            return parse(reader, file.getFileName().toString());
         }
-        List<String> tokens = streamResult.tokens;
         // -----------------------------------------------------------------------
+    }
+
+    // Parses text from any source (e.g. generated corpora); the caller owns and closes the reader
+    public ParseResult parse(Reader reader, String fileName) throws IOException {
+        BufferedReader buffered = reader instanceof BufferedReader
+            ? (BufferedReader) reader
+            : new BufferedReader(reader);
+        Tokenizer.StreamResult streamResult = tokenizer.tokenizeStreaming(buffered);
+        List<String> tokens = streamResult.tokens;
 
         ParseResult result = new ParseResult();
-        result.setFileName(file.getFileName().toString());
+        result.setFileName(fileName);
         result.setImportedAt(Instant.now());
         // Shriram Janardhan: Paragraph count from streaming tokenizer
         result.setTotalParagraphs(streamResult.paragraphCount);
 
         String previousWord = null;
+        String wordBeforeLast = null;
+        int wordsInSentence = 0;
         String lastWordInSentence = null;
         boolean expectingSentenceStart = true;
         boolean sentenceHasWords = false;
@@ -79,12 +95,17 @@ public class TextParser {
                 if (sentenceHasWords && lastWordInSentence != null) { // and sentence actually has words,
                     result.incrementSentenceEndCount(lastWordInSentence); // then mark last word as a sentence ender,
                     totalSentences++; // and count this as a sentemce
+                    if (recordTransitionFlags && wordBeforeLast != null) {
+                        result.markTransition(wordBeforeLast, lastWordInSentence, ParseResult.PRECEDES_SENTENCE_END);
+                    }
                 }
                 // Restarting these for next sequence
                 expectingSentenceStart = true;
                 sentenceHasWords = false;
                 lastWordInSentence = null;
                 previousWord = null;
+                wordBeforeLast = null;
+                wordsInSentence = 0;
                 continue;
             }
 
@@ -109,8 +130,13 @@ public class TextParser {
 
             if (previousWord != null) {
                 result.incrementNextWordCount(previousWord, word);
+                if (recordTransitionFlags && wordsInSentence == 1) {
+                    result.markTransition(previousWord, word, ParseResult.FOLLOWS_SENTENCE_START);
+                }
             }
 
+            wordBeforeLast = previousWord;
+            wordsInSentence++;
             previousWord = word;
             lastWordInSentence = word;
             sentenceHasWords = true;
@@ -119,6 +145,9 @@ public class TextParser {
         if (sentenceHasWords && lastWordInSentence != null) {
             result.incrementSentenceEndCount(lastWordInSentence);
             totalSentences++;
+            if (recordTransitionFlags && wordBeforeLast != null) {
+                result.markTransition(wordBeforeLast, lastWordInSentence, ParseResult.PRECEDES_SENTENCE_END);
+            }
         }
 
         result.setTotalWords(totalWords);
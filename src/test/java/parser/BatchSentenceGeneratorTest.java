@@ -0,0 +1,123 @@
+package parser;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Class: BatchSentenceGeneratorTest
+ * Description: Checks the Bloom filter and parallel batch generation without
+ * a database: survivors are unique and every sentence is accounted for.
+ */
+public class BatchSentenceGeneratorTest {
+    @Test
+    void bloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("sentence " + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("sentence " + i), "inserted value found: " + i);
+            assertFalse(filter.put("sentence " + i), "second put is a duplicate: " + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("sentence " + i)) {
+                falsePositives++;
+            }
+        }
+        // Target is 1%; allow generous slack so the check is not flaky
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void failingSinkStopsAllWorkers() throws IOException {
+        BatchSentenceGenerator.Options options = new BatchSentenceGenerator.Options();
+        options.count = 200_000;
+        options.threads = 4;
+        options.batchSize = 1;
+        BatchSentenceGenerator generator = new BatchSentenceGenerator(MarkovModel.fromParseResult(smallModel()), options);
+
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        int[] seen = {0};
+        assertThrows(SQLException.class, () -> generator.generate(
+            BloomFilter.create(options.count, 0.001), sentence -> {
+                if (++seen[0] == 10) {
+                    throw new SQLException("insert failed");
+                }
+            }));
+
+        // Worker threads created by generate() must all terminate
+        long deadline = System.currentTimeMillis() + 5_000;
+        Set<Thread> leftover;
+        do {
+            leftover = new HashSet<>(Thread.getAllStackTraces().keySet());
+            leftover.removeAll(before);
+            leftover.removeIf(thread -> !thread.isAlive() || !thread.getName().startsWith("pool-"));
+        } while (!leftover.isEmpty() && System.currentTimeMillis() < deadline);
+        assertTrue(leftover.isEmpty(), "worker threads still running: " + leftover);
+    }
+
+    @Test
+    void optionsRejectNonPositiveValues() {
+        BatchSentenceGenerator.Options options = new BatchSentenceGenerator.Options();
+        for (String flag : List.of("--threads", "--batch-size", "--max-words")) {
+            assertThrows(IllegalArgumentException.class, () -> options.applyFlag(flag, "0"), flag + " 0");
+            assertThrows(IllegalArgumentException.class, () -> options.applyFlag(flag, "-3"), flag + " -3");
+        }
+        assertThrows(IllegalArgumentException.class, () -> options.applyFlag("--false-positive-rate", "0"),
+            "false positive rate 0");
+        options.applyFlag("--batch-size", "250");
+        assertEquals(250, options.batchSize, "positive batch size applied");
+    }
+
+    @Test
+    void dedupeKeyMatchesUniqueIndex() {
+        assertEquals("the cat sat.", BatchSentenceGenerator.dedupeKey("The cat sat."));
+        assertEquals(512, BatchSentenceGenerator.dedupeKey("a".repeat(600)).length());
+    }
+
+    @Test
+    void parallelGenerationEmitsOnlyUniqueSentences() throws IOException, SQLException {
+        ParseResult parsed = smallModel();
+
+        BatchSentenceGenerator.Options options = new BatchSentenceGenerator.Options();
+        options.count = 20_000;
+        options.threads = 4;
+        options.maxWords = 8;
+        BatchSentenceGenerator generator =
+            new BatchSentenceGenerator(MarkovModel.fromParseResult(parsed), options);
+
+        List<String> sentences = new ArrayList<>();
+        BatchSentenceGenerator.Report report = generator.generate(
+            BloomFilter.create(options.count, 0.001), sentence -> sentences.add(sentence.text));
+
+        assertEquals(20_000, report.generated, "generated");
+        assertEquals(sentences.size(), report.accepted, "accepted");
+        assertEquals(report.generated, report.accepted + report.filteredDuplicates, "all sentences accounted for");
+        assertTrue(report.filteredDuplicates > 0, "short sentences from a small model repeat");
+
+        Set<String> keys = new HashSet<>();
+        for (String sentence : sentences) {
+            assertTrue(keys.add(BatchSentenceGenerator.dedupeKey(sentence)), "duplicate emitted: " + sentence);
+            assertTrue(sentence.endsWith("."), "sentence terminated: " + sentence);
+        }
+    }
+
+    private static ParseResult smallModel() throws IOException {
+        SyntheticCorpus.Config config = new SyntheticCorpus.Config();
+        config.targetChars = 50_000L;
+        config.vocabularySize = 500;
+        config.maxSentenceWords = 6;
+        return new TextParser().parse(new SyntheticCorpus(config), "synthetic.txt");
+    }
+}
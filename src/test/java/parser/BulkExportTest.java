@@ -0,0 +1,159 @@
+package parser;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Class: BulkExportTest
+ * Description: Checks that BulkExporter output lines up with the columns in
+ * database/SentenceBuilderDatabase.sql and that client-side ids are consistent.
+ */
+public class BulkExportTest {
+    private static final Path SCHEMA = Path.of("database", "SentenceBuilderDatabase.sql");
+
+    @TempDir
+    Path exportDir;
+
+    @Test
+    void columnsMatchSchema() throws IOException {
+        Map<String, List<String>> schema = readSchemaColumns();
+        for (String table : BulkExporter.TABLES) {
+            assertEquals(schema.get(table), BulkExporter.columnsOf(table), table + " columns");
+        }
+    }
+
+    @Test
+    void exportedRowsMatchColumns() throws IOException {
+        Path input = resourcePath("simple.txt");
+        TextParser parser = new TextParser();
+        parser.setRecordTransitionFlags(true);
+        ParseResult result = parser.parse(input);
+        BulkExporter.ExportResult export = new BulkExporter().export(result, input, exportDir);
+
+        for (String table : BulkExporter.TABLES) {
+            int columns = BulkExporter.columnsOf(table).size();
+            for (String[] row : readRows(table)) {
+                assertEquals(columns, row.length, table + " field count");
+            }
+        }
+
+        List<String[]> files = readRows("files");
+        assertEquals(1, files.size(), "files rows");
+        assertEquals("simple.txt", files.get(0)[1], "files file_name");
+        assertEquals("8", files.get(0)[4], "files word_count");
+        assertEquals("3", files.get(0)[5], "files sentence_count");
+
+        Map<String, String[]> words = new LinkedHashMap<>();
+        Set<String> wordIds = new HashSet<>();
+        for (String[] row : readRows("words")) {
+            words.put(row[1], row);
+            assertTrue(wordIds.add(row[0]), "duplicate word_id " + row[0]);
+        }
+        assertEquals(result.getWordCounts().size(), words.size(), "words rows");
+        assertEquals(export.wordRows, words.size(), "export wordRows");
+        assertEquals("1", words.get("hello")[0], "hello word_id");
+        assertEquals("2", words.get("hello")[2], "hello total_count");
+        assertEquals("2", words.get("hello")[3], "hello start_count");
+        assertEquals("1", words.get("test")[4], "test end_count");
+
+        for (String[] row : readRows("word_file_stats")) {
+            assertTrue(wordIds.contains(row[0]), "word_file_stats word_id " + row[0]);
+            assertEquals("1", row[1], "word_file_stats file_id");
+        }
+
+        List<String[]> transitions = readRows("next_word");
+        assertEquals(export.transitionRows, transitions.size(), "next_word rows");
+        for (String[] row : transitions) {
+            assertTrue(wordIds.contains(row[0]), "next_word from_word_id " + row[0]);
+            assertTrue(wordIds.contains(row[1]), "next_word to_word_id " + row[1]);
+        }
+        // Hello world. / This is a test. / Hello again!
+        assertTransition(transitions, words, "hello", "world", "1", "1", "1");
+        assertTransition(transitions, words, "this", "is", "1", "1", "0");
+        assertTransition(transitions, words, "is", "a", "1", "0", "0");
+        assertTransition(transitions, words, "a", "test", "1", "0", "1");
+    }
+
+    private static void assertTransition(List<String[]> transitions, Map<String, String[]> words,
+                                         String from, String to, String count,
+                                         String followsStart, String precedesEnd) {
+        String fromId = words.get(from)[0];
+        String toId = words.get(to)[0];
+        String[] row = transitions.stream()
+            .filter(r -> r[0].equals(fromId) && r[1].equals(toId))
+            .findFirst()
+            .orElse(null);
+        assertNotNull(row, "next_word " + from + " -> " + to);
+        assertEquals(count, row[2], from + " -> " + to + " transition_count");
+        assertEquals(followsStart, row[3], from + " -> " + to + " follows_sentence_start");
+        assertEquals(precedesEnd, row[4], from + " -> " + to + " precedes_sentence_end");
+    }
+
+    @Test
+    void transitionFlagsOnlyRecordedOnRequest() throws IOException {
+        ParseResult result = new TextParser().parse(resourcePath("simple.txt"));
+        assertTrue(result.getTransitionFlags().isEmpty(), "no flags without setRecordTransitionFlags");
+    }
+
+    @Test
+    void escapesLoadDataSpecialCharacters() {
+        assertEquals("a\\tb\\nc\\\\d", BulkExporter.escapeField("a\tb\nc\\d"));
+        assertEquals("\\N", BulkExporter.escapeField(null));
+        assertEquals("plain", BulkExporter.escapeField("plain"));
+    }
+
+    private List<String[]> readRows(String table) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(BulkExporter.tableFile(exportDir, table), StandardCharsets.UTF_8)) {
+            rows.add(line.split("\t", -1));
+        }
+        return rows;
+    }
+
+    // Pulls column names out of each CREATE TABLE block, skipping key/constraint lines
+    private static Map<String, List<String>> readSchemaColumns() throws IOException {
+        String sql = Files.readString(SCHEMA, StandardCharsets.UTF_8);
+        Matcher matcher = Pattern.compile("CREATE TABLE (\\w+) \\((.*?)\\n\\);", Pattern.DOTALL).matcher(sql);
+        Map<String, List<String>> tables = new LinkedHashMap<>();
+        while (matcher.find()) {
+            List<String> columns = new ArrayList<>();
+            for (String line : matcher.group(2).split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("PRIMARY") || trimmed.startsWith("FOREIGN")
+                    || trimmed.startsWith("UNIQUE") || trimmed.startsWith("ON ")) {
+                    continue;
+                }
+                columns.add(trimmed.split("\\s+")[0]);
+            }
+            tables.put(matcher.group(1), columns);
+        }
+        return tables;
+    }
+
+    private static Path resourcePath(String fileName) {
+        URL resource = BulkExportTest.class.getClassLoader().getResource("parser/" + fileName);
+        assertNotNull(resource, "Missing test resource: " + fileName);
+        try {
+            return Path.of(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid resource URI for test file: " + fileName, e);
+        }
+    }
+}
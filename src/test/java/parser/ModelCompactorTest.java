@@ -0,0 +1,234 @@
+package parser;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Class: ModelCompactorTest
+ * Description: Verifies in-memory model compaction: thresholds, successor
+ * caps, stopword trimming, valid start/end distributions and the report.
+ */
+public class ModelCompactorTest {
+    @Test
+    void dropsRareWordsAndTransitions() {
+        ParseResult result = sampleModel();
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.minWordCount = 2;
+        options.minTransitionCount = 2;
+
+        ModelCompactor.Report report = new ModelCompactor(options).compact(result);
+
+        // "zebra" and "dog" appear once and are neither the top starter nor the top ender
+        assertFalse(result.getWordCounts().containsKey("zebra"), "rare word removed");
+        assertFalse(result.getWordCounts().containsKey("dog"), "rare word removed");
+        assertFalse(result.getSentenceEndCounts().containsKey("zebra"), "rare word removed from ends");
+        assertFalse(result.getNextWordCounts().get("cat").containsKey("zebra"), "transition to rare word removed");
+        assertFalse(result.getNextWordCounts().get("the").containsKey("dog"), "singleton transition removed");
+        assertEquals(4, result.getNextWordCounts().get("the").get("cat"), "frequent transition kept");
+
+        assertEquals(6, report.wordsBefore, "wordsBefore");
+        assertEquals(4, report.wordsAfter, "wordsAfter");
+        assertTrue(report.bytesSaved > 0, "bytesSaved");
+        assertTrue(report.transitionMassLost > 0 && report.transitionMassLost < 1, "transitionMassLost");
+        assertDistributionsValid(result);
+    }
+
+    @Test
+    void keepsTopStartAndEndWords() {
+        ParseResult result = sampleModel();
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.minWordCount = 100;
+
+        new ModelCompactor(options).compact(result);
+
+        // the -> cat -> sat is the shortest way from the top start word to an end word
+        assertEquals(Map.of("the", 3, "cat", 1), result.getSentenceStartCounts(), "top start word pinned");
+        assertEquals(Map.of("sat", 3), result.getSentenceEndCounts(), "top end word pinned");
+        assertEquals(Map.of("cat", 4), result.getNextWordCounts().get("the"), "path transition kept");
+        assertEquals(Map.of("sat", 3), result.getNextWordCounts().get("cat"), "path transition kept");
+        assertDistributionsValid(result);
+    }
+
+    @Test
+    void dropsStartWordsThatCannotReachAnEnd() {
+        ParseResult result = sampleModel();
+        result.incrementSentenceStartCount("dog");
+        addTransition(result, "dog", "sat", 1);
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.minTransitionCount = 2;
+
+        ModelCompactor.Report report = new ModelCompactor(options).compact(result);
+
+        // dog -> sat was its only way out, and the path through the -> cat -> sat stays pinned
+        assertEquals(Map.of("the", 3, "cat", 1), result.getSentenceStartCounts(), "unreachable start dropped");
+        assertEquals(1.0 / 5.0, report.startMassLost, 1e-9, "startMassLost");
+        assertDistributionsValid(result);
+    }
+
+    @Test
+    void pathTransitionsSurviveTransitionThreshold() {
+        ParseResult result = new ParseResult();
+        addWords(result, "a", "b", "c");
+        result.incrementSentenceStartCount("a");
+        result.incrementSentenceEndCount("c");
+        addTransition(result, "a", "b", 1);
+        addTransition(result, "b", "c", 1);
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.minTransitionCount = 5;
+
+        new ModelCompactor(options).compact(result);
+
+        assertEquals(Map.of("b", 1), result.getNextWordCounts().get("a"), "path transition kept");
+        assertEquals(Map.of("c", 1), result.getNextWordCounts().get("b"), "path transition kept");
+        assertDistributionsValid(result);
+    }
+
+    @Test
+    void dropsFlagsOfRemovedTransitions() {
+        ParseResult result = sampleModel();
+        result.markTransition("the", "cat", ParseResult.FOLLOWS_SENTENCE_START);
+        result.markTransition("cat", "zebra", ParseResult.PRECEDES_SENTENCE_END);
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.minTransitionCount = 2;
+
+        new ModelCompactor(options).compact(result);
+
+        assertEquals(ParseResult.FOLLOWS_SENTENCE_START, result.getTransitionFlags("the", "cat"), "kept flag");
+        assertEquals(0, result.getTransitionFlags("cat", "zebra"), "removed transition flag dropped");
+        assertFalse(result.getTransitionFlags().containsKey("cat"), "empty flag map dropped");
+    }
+
+    @Test
+    void capsSuccessorsPerWord() {
+        ParseResult result = sampleModel();
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.maxSuccessors = 1;
+
+        ModelCompactor.Report report = new ModelCompactor(options).compact(result);
+
+        assertEquals(Map.of("cat", 4), result.getNextWordCounts().get("the"), "top successor kept");
+        assertEquals(Map.of("sat", 3), result.getNextWordCounts().get("cat"), "top successor kept");
+        assertEquals(6, report.wordsAfter, "words untouched by successor cap");
+        // Before: the->cat 4, the->dog 1, cat->sat 3, cat->zebra 1, sat->on 2, on->the 2
+        assertEquals(2.0 / 13.0, report.transitionMassLost, 1e-9, "transitionMassLost");
+        assertDistributionsValid(result);
+    }
+
+    @Test
+    void collapsesStopwordHeavySuccessorLists() {
+        ParseResult result = new ParseResult();
+        addWords(result, "sat", "on", "the", "in", "a", "by", "mat");
+        result.incrementSentenceStartCount("sat");
+        result.incrementSentenceEndCount("mat");
+        addTransition(result, "sat", "on", 5);
+        addTransition(result, "sat", "in", 4);
+        addTransition(result, "sat", "by", 3);
+        addTransition(result, "sat", "a", 2);
+        addTransition(result, "sat", "mat", 1);
+
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        options.collapseStopwords = true;
+        options.stopwordSuccessorCap = 2;
+        new ModelCompactor(options).compact(result);
+
+        assertEquals(Map.of("on", 5, "in", 4, "mat", 1), result.getNextWordCounts().get("sat"),
+            "top stopword successors and all content successors kept");
+    }
+
+    @Test
+    void defaultOptionsLeaveModelUnchanged() {
+        ParseResult result = sampleModel();
+        ModelCompactor.Report report = new ModelCompactor(new ModelCompactor.Options()).compact(result);
+
+        assertEquals(report.wordsBefore, report.wordsAfter, "words");
+        assertEquals(report.transitionsBefore, report.transitionsAfter, "transitions");
+        assertEquals(0, report.bytesSaved, "bytesSaved");
+        assertEquals(0.0, report.transitionMassLost, "transitionMassLost");
+    }
+
+    @Test
+    void rejectsNonPositiveFlagValues() {
+        ModelCompactor.Options options = new ModelCompactor.Options();
+        assertEquals(0, options.applyFlag(new String[] {"--min-word-count", "0"}, 0), "zero rejected");
+        assertEquals(0, options.applyFlag(new String[] {"--max-successors", "-2"}, 0), "negative rejected");
+        assertEquals(0, options.applyFlag(new String[] {"--min-transition-count", "x"}, 0), "non-number rejected");
+        assertEquals(2, options.applyFlag(new String[] {"--max-successors", "3"}, 0), "positive accepted");
+        assertEquals(3, options.maxSuccessors, "maxSuccessors");
+        assertEquals(1, options.minWordCount, "rejected value not applied");
+    }
+
+    // the(8) cat(4) sat(3) on(2) dog(1) zebra(1)
+    private static ParseResult sampleModel() {
+        ParseResult result = new ParseResult();
+        addWords(result, "the", "the", "the", "the", "the", "the", "the", "the",
+            "cat", "cat", "cat", "cat", "sat", "sat", "sat", "on", "on", "dog", "zebra");
+        for (int i = 0; i < 3; i++) {
+            result.incrementSentenceStartCount("the");
+            result.incrementSentenceEndCount("sat");
+        }
+        result.incrementSentenceStartCount("cat");
+        result.incrementSentenceEndCount("zebra");
+        addTransition(result, "the", "cat", 4);
+        addTransition(result, "the", "dog", 1);
+        addTransition(result, "cat", "sat", 3);
+        addTransition(result, "cat", "zebra", 1);
+        addTransition(result, "sat", "on", 2);
+        addTransition(result, "on", "the", 2);
+        return result;
+    }
+
+    private static void addWords(ParseResult result, String... words) {
+        for (String word : words) {
+            result.incrementWordCount(word);
+        }
+    }
+
+    private static void addTransition(ParseResult result, String from, String to, int count) {
+        for (int i = 0; i < count; i++) {
+            result.incrementNextWordCount(from, to);
+        }
+    }
+
+    private static void assertDistributionsValid(ParseResult result) {
+        assertFalse(result.getSentenceStartCounts().isEmpty(), "start distribution non-empty");
+        assertFalse(result.getSentenceEndCounts().isEmpty(), "end distribution non-empty");
+        for (String word : result.getSentenceStartCounts().keySet()) {
+            assertTrue(result.getWordCounts().containsKey(word), "start word exists: " + word);
+        }
+        for (String word : result.getSentenceEndCounts().keySet()) {
+            assertTrue(result.getWordCounts().containsKey(word), "end word exists: " + word);
+        }
+        for (Map.Entry<String, Map<String, Integer>> entry : result.getNextWordCounts().entrySet()) {
+            assertTrue(result.getWordCounts().containsKey(entry.getKey()), "from word exists: " + entry.getKey());
+            assertFalse(entry.getValue().isEmpty(), "no empty successor lists");
+            for (String to : entry.getValue().keySet()) {
+                assertTrue(result.getWordCounts().containsKey(to), "to word exists: " + to);
+            }
+        }
+        for (String word : result.getSentenceStartCounts().keySet()) {
+            assertTrue(reachesEnd(result, word), "start word reaches an end word: " + word);
+        }
+    }
+
+    private static boolean reachesEnd(ParseResult result, String start) {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<String> queue = new ArrayDeque<>(List.of(start));
+        while (!queue.isEmpty()) {
+            String word = queue.poll();
+            if (result.getSentenceEndCounts().containsKey(word)) {
+                return true;
+            }
+            if (seen.add(word)) {
+                queue.addAll(result.getNextWordCounts().getOrDefault(word, Map.of()).keySet());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package parser;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Class: ParserScaleTest
+ * Description: Budget tests that run TextParser over large synthetic corpora
+ * and fail on throughput, peak heap or count regressions. Tagged "scale" and
+ * only run with the scale profile: mvn test -Pscale
+ * Budgets can be overridden with -Dscale.corpus.chars, -Dscale.throughput.chars,
+ * -Dscale.min.chars.per.sec and -Dscale.max.heap.mb. Counts and heap are checked
+ * while streaming the full corpus; throughput is timed separately on a
+ * pre-generated sample so generator cost never counts against the parser.
+ */
+@Tag("scale")
+public class ParserScaleTest {
+    private static final long CORPUS_CHARS = Long.getLong("scale.corpus.chars", 32_000_000L);
+    private static final long THROUGHPUT_CHARS = Long.getLong("scale.throughput.chars", 8_000_000L);
+    private static final int THROUGHPUT_RUNS = 3;
+    // Parse-only rate measures 4.3M-5.9M chars/sec; the floor leaves room for noise, not for a 2x slowdown
+    private static final long MIN_CHARS_PER_SEC = Long.getLong("scale.min.chars.per.sec", 3_500_000L);
+    private static final long MAX_HEAP_MB = Long.getLong("scale.max.heap.mb", 768L);
+
+    @Test
+    void largeEnglishHeavyCorpus() throws IOException {
+        SyntheticCorpus.Config config = new SyntheticCorpus.Config();
+        config.seed = 1L;
+        config.targetChars = CORPUS_CHARS;
+        config.vocabularySize = 100_000;
+        config.unicodeShare = 0.05;
+        runWithinBudget("english-heavy", config);
+    }
+
+    @Test
+    void largeUnicodeMixedCorpus() throws IOException {
+        SyntheticCorpus.Config config = new SyntheticCorpus.Config();
+        config.seed = 2L;
+        config.targetChars = CORPUS_CHARS;
+        config.vocabularySize = 250_000;
+        config.unicodeShare = 0.6;
+        config.maxSentenceWords = 40;
+        config.maxParagraphSentences = 20;
+        runWithinBudget("unicode-mixed", config);
+    }
+
+    private static void runWithinBudget(String label, SyntheticCorpus.Config config) throws IOException {
+        SyntheticCorpus corpus = new SyntheticCorpus(config);
+        ParseResult result;
+        long peakHeapBytes;
+        long collections;
+
+        try (HeapPeakMonitor monitor = new HeapPeakMonitor()) {
+            result = new TextParser().parse(corpus, label + ".txt");
+            // Collect while the result is still live so the retained model is always measured
+            monitor.collectAndWait();
+            peakHeapBytes = monitor.peakBytes();
+            collections = monitor.collections();
+        }
+
+        assertEquals(corpus.getTotalWords(), result.getTotalWords(), label + " totalWords");
+        assertEquals(corpus.getTotalSentences(), result.getTotalSentences(), label + " totalSentences");
+        assertEquals(corpus.getTotalParagraphs(), result.getTotalParagraphs(), label + " totalParagraphs");
+        assertEquals(corpus.getUniqueWords(), result.getWordCounts().size(), label + " uniqueWords");
+        assertEquals(corpus.getTotalTransitions(), SyntheticCorpus.transitionMass(result),
+            label + " transitions");
+        result = null;
+
+        // The full run above has warmed up the JIT; best of a few runs smooths out GC pauses
+        config.targetChars = Math.min(THROUGHPUT_CHARS, config.targetChars);
+        String sample = SyntheticCorpus.generateText(config);
+        long elapsedNanos = Long.MAX_VALUE;
+        for (int run = 0; run < THROUGHPUT_RUNS; run++) {
+            long start = System.nanoTime();
+            new TextParser().parse(new StringReader(sample), label + "-sample.txt");
+            elapsedNanos = Math.min(elapsedNanos, System.nanoTime() - start);
+        }
+
+        long charsPerSec = (long) (sample.length() / (elapsedNanos / 1e9));
+        long peakHeapMb = peakHeapBytes / (1024 * 1024);
+        System.out.println();
+        System.out.println("[scale] " + label + ": " + corpus.getCharsGenerated() + " chars, "
+            + corpus.getTotalWords() + " words, peak heap after GC " + peakHeapMb + " MB over "
+            + collections + " collections; parsed " + sample.length() + "-char sample in "
+            + elapsedNanos / 1_000_000 + " ms (" + charsPerSec + " chars/sec)");
+
+        assertTrue(collections > 0, label + " heap ceiling measured no garbage collections");
+        assertTrue(peakHeapBytes > 0, label + " heap ceiling measured no heap usage");
+        assertTrue(charsPerSec >= MIN_CHARS_PER_SEC,
+            label + " throughput " + charsPerSec + " chars/sec below floor " + MIN_CHARS_PER_SEC);
+        assertTrue(peakHeapMb <= MAX_HEAP_MB,
+            label + " peak heap " + peakHeapMb + " MB above ceiling " + MAX_HEAP_MB + " MB");
+    }
+
+    // Tracks the largest heap occupancy seen right after a GC, i.e. the live set, so the
+    // ceiling measures what the parser retains rather than how lazily the collector runs
+    private static final class HeapPeakMonitor implements NotificationListener, AutoCloseable {
+        private final AtomicLong peak = new AtomicLong();
+        private final AtomicLong collections = new AtomicLong();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        // Metaspace, code cache and class space are not part of the parser's heap budget
+        private final Set<String> heapPools = new HashSet<>();
+
+        HeapPeakMonitor() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    heapPools.add(pool.getName());
+                }
+            }
+            System.gc();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter) {
+                    NotificationEmitter emitter = (NotificationEmitter) gc;
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long used = 0;
+            for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                if (heapPools.contains(pool.getKey())) {
+                    used += pool.getValue().getUsed();
+                }
+            }
+            peak.accumulateAndGet(used, Math::max);
+            synchronized (this) {
+                collections.incrementAndGet();
+                notifyAll();
+            }
+        }
+
+        // Notifications are delivered asynchronously, so wait until this GC has been reported
+        void collectAndWait() {
+            long before = collections.get();
+            System.gc();
+            long deadline = System.currentTimeMillis() + 10_000;
+            synchronized (this) {
+                while (collections.get() == before) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        return;
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+
+        long peakBytes() {
+            return peak.get();
+        }
+
+        long collections() {
+            return collections.get();
+        }
+
+        @Override
+        public void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException ignored) {
+                    // Already removed
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package parser;
+
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/*
+ * Class: SyntheticCorpus
+ * Description: Deterministic, seeded text generator for parser scale tests.
+ * Produces paragraphs of sentences drawn from a Zipfian vocabulary that mixes
+ * ASCII, accented Latin, Greek, Cyrillic and CJK words. Text is generated on
+ * the fly as a Reader, so multi-GB corpora never touch the disk, and the
+ * generator records the counts TextParser is expected to report.
+ */
+final class SyntheticCorpus extends Reader {
+    private static final String ASCII_CONSONANTS = "bcdfghjklmnprstvwz";
+    private static final String ASCII_VOWELS = "aeiou";
+    private static final String ACCENTED_VOWELS = "aeiouéèêëáàâäíïóôöúùûüñç";
+    private static final String GREEK = "αβγδεζηθικλμνξοπρστυφχψω";
+    private static final String CYRILLIC = "абвгдежзийклмнопрстуфхцчшщыэюя";
+    private static final String CJK = "的一是不了人我在有他这中大来上国个到说们为子和你地出道也时年";
+    private static final String[] TERMINATORS = {".", ".", ".", "!", "?", "...", "?!"};
+
+    private final Config config;
+    private final SplittableRandom random;
+    private final String[] vocabulary;
+    private final String[] capitalized;
+    private final double[] cumulative;
+    private final long[] wordCounts;
+
+    private final StringBuilder buffer = new StringBuilder(8192);
+    private int bufferPos = 0;
+    private long charsGenerated = 0;
+    private boolean finished = false;
+
+    private long totalWords = 0;
+    private long totalSentences = 0;
+    private long totalParagraphs = 0;
+
+    SyntheticCorpus(Config config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.seed);
+        this.vocabulary = buildVocabulary(config, new SplittableRandom(config.seed ^ 0x5DEECE66DL));
+        this.capitalized = new String[vocabulary.length];
+        for (int i = 0; i < vocabulary.length; i++) {
+            capitalized[i] = capitalize(vocabulary[i]);
+        }
+        this.cumulative = zipfCumulative(vocabulary.length, config.zipfExponent);
+        this.wordCounts = new long[vocabulary.length];
+    }
+
+    // Generates the whole corpus into a String; only for small configurations
+    static String generateText(Config config) {
+        StringBuilder text = new StringBuilder();
+        try (SyntheticCorpus corpus = new SyntheticCorpus(config)) {
+            char[] chunk = new char[8192];
+            int read;
+            while ((read = corpus.read(chunk, 0, chunk.length)) != -1) {
+                text.append(chunk, 0, read);
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        while (bufferPos == buffer.length()) {
+            if (finished) {
+                return -1;
+            }
+            buffer.setLength(0);
+            bufferPos = 0;
+            appendParagraph();
+        }
+        int count = Math.min(len, buffer.length() - bufferPos);
+        buffer.getChars(bufferPos, bufferPos + count, cbuf, off);
+        bufferPos += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release; the corpus lives only in the generator state
+    }
+
+    // Paragraphs are separated by a blank line; the corpus ends with a single newline
+    private void appendParagraph() {
+        if (totalParagraphs > 0) {
+            buffer.append('\n');
+        }
+        int sentences = between(config.minParagraphSentences, config.maxParagraphSentences);
+        for (int s = 0; s < sentences; s++) {
+            if (s > 0) {
+                buffer.append(random.nextDouble() < config.lineBreakRate ? '\n' : ' ');
+            }
+            appendSentence();
+        }
+        buffer.append('\n');
+        totalParagraphs++;
+
+        charsGenerated += buffer.length();
+        if (charsGenerated >= config.targetChars) {
+            finished = true;
+        }
+    }
+
+    private void appendSentence() {
+        int words = between(config.minSentenceWords, config.maxSentenceWords);
+        for (int w = 0; w < words; w++) {
+            int index = sampleWord();
+            if (w > 0) {
+                buffer.append(random.nextDouble() < config.commaRate ? ", " : " ");
+            }
+            buffer.append(w == 0 ? capitalized[index] : vocabulary[index]);
+            wordCounts[index]++;
+        }
+        buffer.append(TERMINATORS[random.nextInt(TERMINATORS.length)]);
+        totalWords += words;
+        totalSentences++;
+    }
+
+    private int sampleWord() {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int slot = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(slot, cumulative.length - 1);
+    }
+
+    private int between(int min, int max) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    long getCharsGenerated() {
+        return charsGenerated;
+    }
+
+    long getTotalWords() {
+        return totalWords;
+    }
+
+    long getTotalSentences() {
+        return totalSentences;
+    }
+
+    long getTotalParagraphs() {
+        return totalParagraphs;
+    }
+
+    // Every sentence has at least one word, so each contributes words - 1 transitions
+    long getTotalTransitions() {
+        return totalWords - totalSentences;
+    }
+
+    // Sum of all next-word counts, to compare against getTotalTransitions()
+    static long transitionMass(ParseResult result) {
+        long mass = 0;
+        for (Map<String, Integer> successors : result.getNextWordCounts().values()) {
+            for (int count : successors.values()) {
+                mass += count;
+            }
+        }
+        return mass;
+    }
+
+    long getUniqueWords() {
+        long unique = 0;
+        for (long count : wordCounts) {
+            if (count > 0) {
+                unique++;
+            }
+        }
+        return unique;
+    }
+
+    String getWord(int rank) {
+        return vocabulary[rank];
+    }
+
+    long getWordCount(int rank) {
+        return wordCounts[rank];
+    }
+
+    private static String[] buildVocabulary(Config config, SplittableRandom random) {
+        Set<String> seen = new HashSet<>();
+        String[] words = new String[config.vocabularySize];
+        int filled = 0;
+        while (filled < words.length) {
+            String word;
+            if (random.nextDouble() < config.unicodeShare) {
+                word = unicodeWord(random);
+            } else {
+                word = asciiWord(random);
+            }
+            if (seen.add(word)) {
+                words[filled++] = word;
+            }
+        }
+        return words;
+    }
+
+    // Mostly plain syllables, with the odd contraction (don't) or hyphenated compound
+    private static String asciiWord(SplittableRandom random) {
+        String word = syllables(random, ASCII_CONSONANTS, ASCII_VOWELS, 1 + random.nextInt(3));
+        double roll = random.nextDouble();
+        if (roll < 0.03) {
+            word = word + "'" + ASCII_CONSONANTS.charAt(random.nextInt(ASCII_CONSONANTS.length()));
+        } else if (roll < 0.06) {
+            word = word + "-" + syllables(random, ASCII_CONSONANTS, ASCII_VOWELS, 1 + random.nextInt(2));
+        }
+        return word;
+    }
+
+    private static String unicodeWord(SplittableRandom random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return syllables(random, ASCII_CONSONANTS, ACCENTED_VOWELS, 1 + random.nextInt(3));
+            case 1:
+                return letters(random, GREEK, 2 + random.nextInt(6));
+            case 2:
+                return letters(random, CYRILLIC, 2 + random.nextInt(7));
+            default:
+                return letters(random, CJK, 1 + random.nextInt(3));
+        }
+    }
+
+    private static String syllables(SplittableRandom random, String consonants, String vowels, int count) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return word.toString();
+    }
+
+    private static String letters(SplittableRandom random, String alphabet, int count) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+    // Only capitalize when normalization maps the result back to the same vocabulary word
+    private static String capitalize(String word) {
+        String upper = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        return upper.toLowerCase(Locale.ROOT).equals(word) ? upper : word;
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    static class Config {
+        long seed = 42L;
+        // Generation stops at the first paragraph boundary at or past this many chars
+        long targetChars = 1_000_000L;
+        int vocabularySize = 20_000;
+        double zipfExponent = 1.07;
+        // Share of vocabulary drawn from accented Latin, Greek, Cyrillic and CJK
+        double unicodeShare = 0.2;
+        int minSentenceWords = 1;
+        int maxSentenceWords = 24;
+        int minParagraphSentences = 1;
+        int maxParagraphSentences = 8;
+        double commaRate = 0.08;
+        // Chance that sentences inside a paragraph are split by a single newline
+        double lineBreakRate = 0.15;
+    }
+}
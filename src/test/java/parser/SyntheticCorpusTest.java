@@ -0,0 +1,46 @@
+package parser;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Class: SyntheticCorpusTest
+ * Description: Fast checks that the synthetic corpus generator is
+ * deterministic and that TextParser reports exactly the counts it expects.
+ * The large-corpus budget tests live in ParserScaleTest.
+ */
+public class SyntheticCorpusTest {
+    @Test
+    void sameSeedSameText() {
+        SyntheticCorpus.Config config = smallConfig(7L);
+        assertEquals(SyntheticCorpus.generateText(config), SyntheticCorpus.generateText(config), "same seed");
+        assertNotEquals(SyntheticCorpus.generateText(config), SyntheticCorpus.generateText(smallConfig(8L)),
+            "different seed");
+    }
+
+    @Test
+    void parserMatchesExpectedCounts() throws IOException {
+        SyntheticCorpus corpus = new SyntheticCorpus(smallConfig(7L));
+        ParseResult result = new TextParser().parse(corpus, "synthetic.txt");
+
+        assertTrue(corpus.getCharsGenerated() >= 200_000, "target size reached");
+        assertEquals(corpus.getTotalWords(), result.getTotalWords(), "synthetic totalWords");
+        assertEquals(corpus.getTotalSentences(), result.getTotalSentences(), "synthetic totalSentences");
+        assertEquals(corpus.getTotalParagraphs(), result.getTotalParagraphs(), "synthetic totalParagraphs");
+        assertEquals(corpus.getUniqueWords(), result.getWordCounts().size(), "synthetic uniqueWords");
+        assertEquals(corpus.getTotalTransitions(), SyntheticCorpus.transitionMass(result), "synthetic transitions");
+        assertEquals(corpus.getWordCount(0), (long) result.getWordCounts().get(corpus.getWord(0)),
+            "synthetic wordCounts[rank 0]");
+    }
+
+    private static SyntheticCorpus.Config smallConfig(long seed) {
+        SyntheticCorpus.Config config = new SyntheticCorpus.Config();
+        config.seed = seed;
+        config.targetChars = 200_000L;
+        config.vocabularySize = 2_000;
+        return config;
+    }
+}